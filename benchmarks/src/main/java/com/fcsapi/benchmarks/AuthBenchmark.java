@@ -0,0 +1,69 @@
+/**
+ * FCS API - Authentication Benchmarks
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import com.fcsapi.FcsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Token generation (HMAC-SHA256) and per-request auth parameters
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+
+    private FcsConfig config;
+    private FcsConfig accessKey;
+
+    @Setup
+    public void setup() {
+        config = FcsConfig.withToken("benchmark-access-key-0123456789", "benchmark-public-key", 3600);
+        accessKey = FcsConfig.withAccessKey("benchmark-access-key-0123456789");
+    }
+
+    /** Fresh token every call: one HMAC-SHA256 plus hex encoding */
+    @Benchmark
+    public Map<String, Object> generateToken() {
+        // Setting the key drops the token shared within the current second
+        config.setPublicKey("benchmark-public-key");
+        return config.generateToken();
+    }
+
+    /** Token reused within the same second */
+    @Benchmark
+    public Map<String, Object> generateTokenShared() {
+        return config.generateToken();
+    }
+
+    /** Auth parameters added to every request, token method */
+    @Benchmark
+    public Map<String, Object> authParamsToken() {
+        return config.getAuthParams();
+    }
+
+    /** Auth parameters added to every request, access key method */
+    @Benchmark
+    public Map<String, Object> authParamsAccessKey() {
+        return accessKey.getAuthParams();
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * FCS API - Benchmark Launcher
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * JMH entry point that adds the GC profiler unless a profiler was chosen,
+ * so allocation rate (gc.alloc.rate.norm, bytes per operation) is always
+ * reported next to throughput
+ *
+ * Usage:
+ *   java -jar target/benchmarks.jar                  all benchmarks
+ *   java -jar target/benchmarks.jar Decode -p size=1000
+ *   java -jar target/benchmarks.jar -prof stack      other profiler instead
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof") && !options.contains("-l") && !options.contains("-h")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * FCS API - Response Decoding Benchmarks
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import com.fcsapi.FcsApi;
+import com.fcsapi.FcsCandleSeries;
+import com.fcsapi.FcsConfig;
+import com.fcsapi.FcsResponse;
+import com.fcsapi.FcsTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gson decoding of realistic payloads, served from memory so only the
+ * client's own request and decode work is measured
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+
+    /**
+     * Generic map decoding of latest, history and advanced responses
+     */
+    @State(Scope.Thread)
+    public static class Payload {
+
+        @Param({ "latest", "history", "advanced" })
+        public String kind;
+
+        /** Quotes, candles or rows in the response */
+        @Param({ "50", "1000" })
+        public int size;
+
+        FcsApi api;
+        String endpoint;
+
+        @Setup
+        public void setup() {
+            byte[] body;
+            switch (kind) {
+                case "latest": body = Payloads.latest(size); endpoint = "forex/latest"; break;
+                case "history": body = Payloads.history(size); endpoint = "forex/history"; break;
+                default: body = Payloads.advanced(size); endpoint = "stock/advance"; break;
+            }
+            api = client(body);
+        }
+    }
+
+    /**
+     * Columnar candle decoding of history responses
+     */
+    @State(Scope.Thread)
+    public static class History {
+
+        /** Candles in the response */
+        @Param({ "50", "1000", "10000" })
+        public int size;
+
+        FcsApi api;
+
+        @Setup
+        public void setup() {
+            api = client(Payloads.history(size));
+        }
+    }
+
+    @Benchmark
+    public FcsResponse decodeMap(Payload state) {
+        return state.api.execute(state.endpoint, Collections.<String, Object>singletonMap("symbol", "EURUSD"));
+    }
+
+    @Benchmark
+    public FcsCandleSeries decodeHistorySeries(History state) {
+        return state.api.getForex().getHistorySeries("EURUSD", "1h", state.size);
+    }
+
+    static FcsApi client(byte[] body) {
+        FcsConfig config = FcsConfig.withAccessKey("benchmark-access-key-0123456789");
+        config.setCoalesceRequests(false);
+        config.setTransport((url, form, c) -> new FcsTransport.Response() {
+            @Override public int getStatusCode() { return 200; }
+            @Override public InputStream getBody() { return new ByteArrayInputStream(body); }
+            @Override public void close() { }
+        });
+        return new FcsApi(config);
+    }
+}
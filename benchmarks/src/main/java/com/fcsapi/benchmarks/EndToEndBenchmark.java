@@ -0,0 +1,82 @@
+/**
+ * FCS API - End-to-End Benchmarks
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi.benchmarks;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import com.fcsapi.FcsApi;
+import com.fcsapi.FcsCandleSeries;
+import com.fcsapi.FcsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full calls through the default keep-alive transport against a loopback stub server
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    private StubServer server;
+    private FcsApi api;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new StubServer()
+                .serve("forex/latest", Payloads.latest(20))
+                .serve("forex/history", Payloads.history(500))
+                .serve("stock/advance", Payloads.advanced(100));
+        FcsConfig config = FcsConfig.withAccessKey("benchmark-access-key-0123456789");
+        config.setBaseUrl(server.baseUrl());
+        // Measure every call on the wire, not shared in-flight results
+        config.setCoalesceRequests(false);
+        api = new FcsApi(config);
+    }
+
+    @TearDown
+    public void tearDown() {
+        api.getConfig().getTransport().close();
+        server.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> latest() {
+        return api.getForex().getLatestPrice("EURUSD,GBPUSD,USDJPY");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Map<String, Object> latestParallel() {
+        return api.getForex().getLatestPrice("EURUSD,GBPUSD,USDJPY");
+    }
+
+    @Benchmark
+    public FcsCandleSeries history() {
+        return api.getForex().getHistorySeries("EURUSD", "1h", 500);
+    }
+
+    @Benchmark
+    public Map<String, Object> advanced() {
+        return api.getStock().getTopGainers();
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * FCS API - Benchmark Payloads
+ *
+ * Deterministic response bodies shaped like real latest, history and
+ * advanced responses, so benchmarks need no recorded fixtures or network.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Synthetic API responses
+ */
+final class Payloads {
+
+    private static final String[] EXCHANGES = { "NASDAQ", "NYSE", "AMEX" };
+    private static final String[] SECTORS = { "Technology", "Finance", "Health Care", "Energy", "Consumer Services" };
+
+    private Payloads() {
+    }
+
+    /**
+     * Latest-price response with one quote per symbol
+     */
+    static byte[] latest(int symbols) {
+        Random random = new Random(symbols);
+        StringBuilder sb = header();
+        sb.append('[');
+        for (int i = 0; i < symbols; i++) {
+            if (i > 0) sb.append(',');
+            double price = 1 + random.nextDouble() * 100;
+            sb.append("{\"ticker\":\"FX:").append(ticker(i)).append("\",\"update\":\"2024-06-03 14:30:00\",\"updateTime\":1717425000,");
+            sb.append("\"active\":{");
+            quote(sb, random, price);
+            sb.append(",\"a\":").append(num(price * 1.0001)).append(",\"b\":").append(num(price * 0.9999)).append("},");
+            sb.append("\"previous\":{");
+            quote(sb, random, price * 0.99);
+            sb.append("}}");
+        }
+        sb.append(']');
+        return footer(sb);
+    }
+
+    /**
+     * History response keyed by index, as returned without is_chart
+     */
+    static byte[] history(int candles) {
+        Random random = new Random(candles);
+        StringBuilder sb = header();
+        sb.append('{');
+        long time = 1704067200L;
+        double price = 1.1;
+        for (int i = 0; i < candles; i++, time += 3600) {
+            if (i > 0) sb.append(',');
+            double open = price;
+            price += random.nextGaussian() * 0.001;
+            sb.append('"').append(i).append("\":{\"o\":\"").append(num(open))
+              .append("\",\"h\":\"").append(num(Math.max(open, price) + 0.0005))
+              .append("\",\"l\":\"").append(num(Math.min(open, price) - 0.0005))
+              .append("\",\"c\":\"").append(num(price))
+              .append("\",\"v\":\"").append(random.nextInt(100000))
+              .append("\",\"t\":\"").append(time)
+              .append("\",\"tm\":\"2024-01-01 00:00:00\"}");
+        }
+        sb.append('}');
+        return footer(sb);
+    }
+
+    /**
+     * Advanced query response: profile, quote and performance per row
+     */
+    static byte[] advanced(int rows) {
+        Random random = new Random(rows);
+        StringBuilder sb = header();
+        sb.append('[');
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(',');
+            String exchange = EXCHANGES[i % EXCHANGES.length];
+            double price = 5 + random.nextDouble() * 500;
+            sb.append("{\"ticker\":\"").append(exchange).append(':').append(ticker(i)).append("\",");
+            sb.append("\"profile\":{\"symbol\":\"").append(ticker(i)).append("\",\"name\":\"Company ").append(i)
+              .append(" Holdings Inc\",\"exchange\":\"").append(exchange)
+              .append("\",\"country\":\"united-states\",\"sector\":\"").append(SECTORS[i % SECTORS.length])
+              .append("\",\"type\":\"stock\",\"currency\":\"USD\"},");
+            sb.append("\"active\":{");
+            quote(sb, random, price);
+            sb.append("},\"performance\":{\"1W\":").append(num(random.nextGaussian() * 3))
+              .append(",\"1M\":").append(num(random.nextGaussian() * 6))
+              .append(",\"3M\":").append(num(random.nextGaussian() * 10))
+              .append(",\"YTD\":").append(num(random.nextGaussian() * 15))
+              .append(",\"1Y\":").append(num(random.nextGaussian() * 25)).append("}}");
+        }
+        sb.append(']');
+        return footer(sb);
+    }
+
+    /**
+     * Smallest successful response
+     */
+    static byte[] empty() {
+        return footer(header().append("[]"));
+    }
+
+    private static void quote(StringBuilder sb, Random random, double price) {
+        double change = random.nextGaussian() * price * 0.01;
+        sb.append("\"o\":").append(num(price - change))
+          .append(",\"h\":").append(num(price + Math.abs(change)))
+          .append(",\"l\":").append(num(price - Math.abs(change) * 2))
+          .append(",\"c\":").append(num(price))
+          .append(",\"ch\":").append(num(change))
+          .append(",\"chp\":").append(num(change / price * 100))
+          .append(",\"v\":").append(random.nextInt(10000000))
+          .append(",\"t\":1717425000");
+    }
+
+    private static String ticker(int i) {
+        StringBuilder sb = new StringBuilder();
+        for (int n = i + 26 * 26; n > 0; n /= 26) sb.append((char) ('A' + n % 26));
+        return sb.toString();
+    }
+
+    private static String num(double value) {
+        return String.format(Locale.ROOT, "%.5f", value);
+    }
+
+    private static StringBuilder header() {
+        return new StringBuilder("{\"status\":true,\"code\":200,\"msg\":\"Successfully\",\"response\":");
+    }
+
+    private static byte[] footer(StringBuilder sb) {
+        sb.append(",\"info\":{\"server_time\":\"2024-06-03 14:30:05 UTC\",\"credit_count\":1}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
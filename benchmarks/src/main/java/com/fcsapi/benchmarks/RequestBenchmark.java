@@ -0,0 +1,78 @@
+/**
+ * FCS API - Request Building Benchmarks
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import com.fcsapi.FcsApi;
+import com.fcsapi.FcsConfig;
+import com.fcsapi.FcsTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FcsApi.request() overhead: parameter copy, auth parameters, form encoding
+ * and the smallest possible response, over a transport that answers from memory
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBenchmark {
+
+    /** Symbols in the request */
+    @Param({ "1", "50" })
+    public int symbols;
+
+    /** Authentication method */
+    @Param({ "access_key", "token" })
+    public String auth;
+
+    private FcsApi api;
+    private Map<String, Object> params;
+
+    @Setup
+    public void setup() {
+        FcsConfig config = "token".equals(auth)
+                ? FcsConfig.withToken("benchmark-access-key-0123456789", "benchmark-public-key", 3600)
+                : FcsConfig.withAccessKey("benchmark-access-key-0123456789");
+        byte[] body = Payloads.empty();
+        config.setTransport((url, form, c) -> new FcsTransport.Response() {
+            @Override public int getStatusCode() { return 200; }
+            @Override public InputStream getBody() { return new ByteArrayInputStream(body); }
+            @Override public void close() { }
+        });
+        api = new FcsApi(config);
+
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < symbols; i++) list.append(i > 0 ? "," : "").append("FX:EUR").append(i).append("USD");
+        params = new HashMap<>();
+        params.put("symbol", list.toString());
+        params.put("period", "1D");
+        params.put("type", "forex");
+    }
+
+    @Benchmark
+    public Map<String, Object> request() {
+        return api.request("forex/latest", params);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * FCS API - Benchmark Stub Server
+ *
+ * In-process HTTP server answering API endpoints with fixed payloads, so
+ * end-to-end benchmarks exercise the real transport without the network.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Loopback HTTP server with one canned body per endpoint
+ */
+final class StubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+
+    StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread t = new Thread(r, "fcs-stub-server");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] skip = new byte[1024];
+                while (in.read(skip) != -1) {
+                    // Drain the form body
+                }
+            }
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = bodies.get(path.substring(path.indexOf('/', 1) + 1));
+            if (body == null) body = Payloads.empty();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Answer an endpoint with a body
+     * @param endpoint Endpoint path below the API root, e.g. "forex/latest"
+     */
+    StubServer serve(String endpoint, byte[] body) {
+        bodies.put(endpoint, body);
+        return this;
+    }
+
+    /** Base URL to configure the client with */
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api-v4/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -10,58 +10,147 @@
 
 package com.fcsapi;
 
-import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * FCS API REST Client
  * Main client class for accessing Forex, Crypto, and Stock market data.
+ *
+ * A single instance can be shared between threads. Use execute() for a
+ * self-contained FcsResponse per call; getLastResponse(), isSuccess() and
+ * getError() report the last request made by the calling thread.
  */
 public class FcsApi {
 
-    private static final String BASE_URL = "https://api-v4.fcsapi.com/";
+    private static final TypeToken<Map<String, Object>> MAP_TYPE = new TypeToken<Map<String, Object>>(){};
+
+    /** Seconds after which a closed candle missing from history is taken as never coming (weekend, holiday) */
+    private static final long CANDLE_PUBLISH_DELAY = 86400;
+
     private final Gson gson = new Gson();
-    private Map<String, Object> lastResponse = new HashMap<>();
+    private final TypeAdapter<Map<String, Object>> mapAdapter = gson.getAdapter(MAP_TYPE);
+    private final TypeAdapter<Object> objectAdapter = gson.getAdapter(Object.class);
+    private final ThreadLocal<FcsResponse> lastResponse = new ThreadLocal<>();
+
+    /** Requests currently on the wire, keyed like the response cache */
+    private final ConcurrentHashMap<String, CompletableFuture<FcsResponse>> inFlight = new ConcurrentHashMap<>();
 
     /** Configuration instance */
-    private FcsConfig config;
+    private final FcsConfig config;
 
-    // Lazy-loaded modules
-    private FcsForex forex;
-    private FcsCrypto crypto;
-    private FcsStock stock;
+    // Lazy-loaded modules (volatile for safe publication across threads)
+    private volatile FcsForex forex;
+    private volatile FcsCrypto crypto;
+    private volatile FcsStock stock;
+    private volatile FcsSubscriptions subscriptions;
+    private volatile FcsSymbolRegistry symbolRegistry;
+    private volatile FcsConversionGraph conversionGraph;
 
     /**
      * Get Forex API module (lazy loading)
      */
     public FcsForex getForex() {
-        if (forex == null) forex = new FcsForex(this);
-        return forex;
+        FcsForex module = forex;
+        if (module == null) {
+            synchronized (this) {
+                if (forex == null) forex = new FcsForex(this);
+                module = forex;
+            }
+        }
+        return module;
     }
 
     /**
      * Get Crypto API module (lazy loading)
      */
     public FcsCrypto getCrypto() {
-        if (crypto == null) crypto = new FcsCrypto(this);
-        return crypto;
+        FcsCrypto module = crypto;
+        if (module == null) {
+            synchronized (this) {
+                if (crypto == null) crypto = new FcsCrypto(this);
+                module = crypto;
+            }
+        }
+        return module;
     }
 
     /**
      * Get Stock API module (lazy loading)
      */
     public FcsStock getStock() {
-        if (stock == null) stock = new FcsStock(this);
-        return stock;
+        FcsStock module = stock;
+        if (module == null) {
+            synchronized (this) {
+                if (stock == null) stock = new FcsStock(this);
+                module = stock;
+            }
+        }
+        return module;
+    }
+
+    /**
+     * Get the shared quote subscription engine (lazy loading)
+     */
+    public FcsSubscriptions getSubscriptions() {
+        FcsSubscriptions engine = subscriptions;
+        if (engine == null) {
+            synchronized (this) {
+                if (subscriptions == null) subscriptions = new FcsSubscriptions(this);
+                engine = subscriptions;
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Get the shared local symbol registry (lazy loading, call load() before searching)
+     */
+    public FcsSymbolRegistry getSymbolRegistry() {
+        FcsSymbolRegistry registry = symbolRegistry;
+        if (registry == null) {
+            synchronized (this) {
+                if (symbolRegistry == null) symbolRegistry = new FcsSymbolRegistry(this);
+                registry = symbolRegistry;
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Get the shared local conversion graph (lazy loading, track bases and refresh() before converting)
+     */
+    public FcsConversionGraph getConversionGraph() {
+        FcsConversionGraph graph = conversionGraph;
+        if (graph == null) {
+            synchronized (this) {
+                if (conversionGraph == null) conversionGraph = new FcsConversionGraph(this);
+                graph = conversionGraph;
+            }
+        }
+        return graph;
     }
 
     /**
@@ -105,6 +194,14 @@ public class FcsApi {
         return config;
     }
 
+    /**
+     * Create a multi_url batch that sends calls from any module in one round trip
+     * @return New FcsMultiRequest
+     */
+    public FcsMultiRequest newMultiRequest() {
+        return new FcsMultiRequest(this);
+    }
+
     /**
      * Generate token for frontend use
      * Only works when AuthMethod is 'token'
@@ -121,61 +218,407 @@ public class FcsApi {
      * @return Response data or null on error
      */
     public Map<String, Object> request(String endpoint, Map<String, Object> parameters) {
-        if (parameters == null) {
-            parameters = new HashMap<>();
+        FcsResponse result = execute(endpoint, parameters);
+        lastResponse.set(result);
+        return result.copyBody();
+    }
+
+    /**
+     * Make API request and return a self-contained result
+     * Does not touch shared state, safe to call from any thread.
+     * @param endpoint API endpoint
+     * @param parameters Request parameters (not modified)
+     * @return FcsResponse, never null
+     */
+    public FcsResponse execute(String endpoint, Map<String, Object> parameters) {
+        return execute(endpoint, parameters, null);
+    }
+
+    /**
+     * Make API request, decoding the "response" field with a dedicated adapter
+     * @param endpoint API endpoint
+     * @param parameters Request parameters (not modified)
+     * @param payloadAdapter Adapter for the "response" field, null for generic maps
+     * @return FcsResponse, never null
+     */
+    FcsResponse execute(String endpoint, Map<String, Object> parameters, TypeAdapter<?> payloadAdapter) {
+        if (payloadAdapter == null && endpoint.endsWith("/latest")) {
+            String[] symbols = splitSymbols(parameters);
+            if (symbols != null && symbols.length > config.getChunkSize()) {
+                return executeChunked(endpoint, parameters, symbols);
+            }
+        }
+
+        FcsResponseCache cache = config.getCache();
+        if (cache == null || payloadAdapter != null) {
+            return sendCoalesced(endpoint, parameters, payloadAdapter);
+        }
+        FcsMetrics metrics = config.getMetrics();
+        if (metrics == null) {
+            return cache.get(endpoint, parameters, () -> sendCoalesced(endpoint, parameters, null), config.getExecutor());
+        }
+
+        // A result the loader did not produce for this call came from the cache
+        FcsResponse[] loaded = new FcsResponse[1];
+        FcsResponse result = cache.get(endpoint, parameters, () -> loaded[0] = sendCoalesced(endpoint, parameters, null), config.getExecutor());
+        if (result != loaded[0]) metrics.recordCacheHit(endpoint);
+        return result;
+    }
+
+    /**
+     * Split an oversized symbol list into chunks, send them in parallel and merge in input order
+     * If any chunk fails the result is a failure holding the quotes that did arrive.
+     */
+    private FcsResponse executeChunked(String endpoint, Map<String, Object> parameters, String[] symbols) {
+        long start = System.nanoTime();
+        int size = Math.max(config.getChunkSize(), 1);
+        int count = (symbols.length + size - 1) / size;
+        FcsResponse[] results = new FcsResponse[count];
+
+        // A fixed number of workers pull chunks, capping parallel requests. The caller
+        // is one of them and waits only for chunks another worker has claimed, so
+        // helpers still queued on a busy bounded executor are never waited for.
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(count);
+        Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < count) {
+                try {
+                    String[] chunk = Arrays.copyOfRange(symbols, i * size, Math.min(symbols.length, (i + 1) * size));
+                    Map<String, Object> params = new HashMap<>(parameters);
+                    params.put("symbol", String.join(",", chunk));
+                    results[i] = execute(endpoint, params, null);
+                } catch (RuntimeException e) {
+                    results[i] = FcsResponse.error("Request Error: " + e.getMessage(), 0);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+        int workers = Math.max(1, Math.min(config.getChunkConcurrency(), count));
+        CompletableFuture<?>[] helpers = new CompletableFuture<?>[workers - 1];
+        for (int w = 0; w < helpers.length; w++) {
+            helpers[w] = CompletableFuture.runAsync(worker, config.getExecutor());
+        }
+        worker.run();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (CompletableFuture<?> helper : helpers) helper.cancel(false);
+            return FcsResponse.error("Request Error: Interrupted while waiting for chunks", System.nanoTime() - start);
+        }
+        // Helpers that have not started yet are skipped instead of running empty
+        for (CompletableFuture<?> helper : helpers) helper.cancel(false);
+
+        // Merge quotes in the order the symbols were requested
+        List<Object> merged = new ArrayList<>();
+        FcsResponse first = null;
+        FcsResponse firstError = null;
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            FcsResponse res = results[i];
+            if (!res.isSuccess()) {
+                if (firstError == null) firstError = res;
+                failed++;
+                continue;
+            }
+            if (first == null) first = res;
+            Map<String, Map<String, Object>> quotes = FcsLatestBatcher.quotesBySymbol(res.getResponse());
+            Set<Object> used = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int j = i * size; j < Math.min(symbols.length, (i + 1) * size); j++) {
+                Map<String, Object> quote = FcsLatestBatcher.findQuote(quotes, symbols[j]);
+                if (quote != null && used.add(quote)) merged.add(quote);
+            }
+            if (res.getResponse() instanceof List) {
+                for (Object item : (List<?>) res.getResponse()) {
+                    if (used.add(item)) merged.add(item);
+                }
+            }
+        }
+        if (first == null) return results[0];
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        if (first.getInfo() instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) first.getInfo()).entrySet()) info.put(String.valueOf(e.getKey()), e.getValue());
+        }
+        info.put("chunks", count);
+        info.put("failed_chunks", failed);
+
+        // Quotes of the chunks that succeeded are kept, but an incomplete list is not a success
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", firstError == null);
+        if (firstError == null) {
+            body.put("code", first.getCode());
+            body.put("msg", first.getMsg());
+        } else {
+            body.put("code", firstError.getCode());
+            String cause = firstError.getError().replaceFirst("^Request Error: ", "");
+            body.put("msg", "Request Error: " + failed + " of " + count + " chunks failed: " + cause);
+        }
+        body.put("response", merged);
+        body.put("info", info);
+        return FcsResponse.of(body, System.nanoTime() - start);
+    }
+
+    private static String[] splitSymbols(Map<String, Object> parameters) {
+        Object symbol = parameters != null ? parameters.get("symbol") : null;
+        if (symbol == null) return null;
+        String value = symbol.toString();
+        if (value.indexOf(',') < 0) return null;
+        List<String> symbols = new ArrayList<>();
+        for (String s : value.split(",")) {
+            if (!s.trim().isEmpty()) symbols.add(s.trim());
+        }
+        return symbols.toArray(new String[0]);
+    }
+
+    /**
+     * Send the request, sharing one network call between identical concurrent requests
+     */
+    private FcsResponse sendCoalesced(String endpoint, Map<String, Object> parameters, TypeAdapter<?> payloadAdapter) {
+        if (!config.isCoalesceRequests()) {
+            return send(endpoint, parameters, payloadAdapter);
         }
 
+        String key = FcsResponseCache.keyOf(endpoint, parameters);
+        if (payloadAdapter != null) key += "#" + payloadAdapter.getClass().getName();
+
+        CompletableFuture<FcsResponse> call = new CompletableFuture<>();
+        CompletableFuture<FcsResponse> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            FcsMetrics metrics = config.getMetrics();
+            if (metrics != null) metrics.recordCoalesced(endpoint);
+            return leader.join();
+        }
+
+        try {
+            FcsResponse response = send(endpoint, parameters, payloadAdapter);
+            call.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Send the request over the transport and decode the response, recording metrics when enabled
+     */
+    private FcsResponse send(String endpoint, Map<String, Object> parameters, TypeAdapter<?> payloadAdapter) {
+        FcsMetrics metrics = config.getMetrics();
+        if (metrics == null) return send(endpoint, parameters, payloadAdapter, null);
+
+        FcsMetrics.Sample sample = new FcsMetrics.Sample(endpoint);
+        FcsResponse response = send(endpoint, parameters, payloadAdapter, sample);
+        sample.totalNanos = response.getElapsedNanos();
+        metrics.record(sample, response);
+        return response;
+    }
+
+    /**
+     * Send the request over the transport and decode the response
+     * @param sample Filled with timings, sizes and the failure class, null when metrics are off
+     */
+    private FcsResponse send(String endpoint, Map<String, Object> parameters, TypeAdapter<?> payloadAdapter, FcsMetrics.Sample sample) {
+        long start = System.nanoTime();
+
+        // Copy so callers can reuse their parameter map
+        Map<String, Object> form = parameters != null ? new HashMap<>(parameters) : new HashMap<>();
+
         // Add authentication parameters
-        Map<String, Object> authParams = config.getAuthParams();
-        parameters.putAll(authParams);
+        form.putAll(config.getAuthParams());
 
-        String url = BASE_URL + endpoint;
+        String url = config.getBaseUrl() + endpoint;
 
         try {
-            URL urlObj = new URL(url);
-            HttpURLConnection conn = (HttpURLConnection) urlObj.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setConnectTimeout(config.getConnectTimeout() * 1000);
-            conn.setReadTimeout(config.getTimeout() * 1000);
-            conn.setDoOutput(true);
+            // Wait for quota, high-priority endpoints go first
+            FcsRateLimiter limiter = config.getRateLimiter();
+            if (limiter != null && !limiter.acquire(FcsRateLimiter.priorityOf(endpoint))) {
+                if (sample != null) sample.error = FcsMetrics.ErrorClass.QUOTA;
+                return FcsResponse.error("Request Error: Monthly request quota reached", System.nanoTime() - start);
+            }
+            long sent = System.nanoTime();
+            if (sample != null) sample.waitNanos = sent - start;
 
             // Build form data
             StringBuilder formData = new StringBuilder();
-            for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            for (Map.Entry<String, Object> entry : form.entrySet()) {
                 if (formData.length() > 0) formData.append("&");
                 formData.append(URLEncoder.encode(entry.getKey(), "UTF-8"));
                 formData.append("=");
                 formData.append(URLEncoder.encode(String.valueOf(entry.getValue()), "UTF-8"));
             }
 
-            // Send request
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(formData.toString().getBytes(StandardCharsets.UTF_8));
-            }
+            // Send request, closing the response returns the connection to the pool
+            byte[] requestBody = formData.toString().getBytes(StandardCharsets.UTF_8);
+            try (FcsTransport.Response res = config.getTransport().post(url, requestBody, config)) {
+                long headers = System.nanoTime();
+                if (sample != null) {
+                    sample.bytesSent = requestBody.length;
+                    sample.status = res.getStatusCode();
+                    sample.connectNanos = res.getConnectNanos();
+                    sample.ttfbNanos = headers - sent;
+                }
 
-            // Read response
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    response.append(line);
+                if (res.getStatusCode() >= 400) {
+                    if (sample != null) sample.error = FcsMetrics.classify(res.getStatusCode());
+                    throw new IOException("Server returned HTTP response code: " + res.getStatusCode());
                 }
-            }
 
-            // Parse JSON response
-            lastResponse = gson.fromJson(response.toString(), new TypeToken<Map<String, Object>>(){}.getType());
-            return lastResponse;
+                // Parse JSON straight from the socket, the body never exists as a String
+                InputStream in = sample != null ? sample.count(res.getBody()) : res.getBody();
+                JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                // Same leniency as Gson.fromJson(String), which accepted NaN values and other loose JSON
+                reader.setLenient(true);
+                Map<String, Object> body = payloadAdapter != null ? readEnvelope(reader, payloadAdapter) : mapAdapter.read(reader);
+                if (sample != null) sample.parseNanos = System.nanoTime() - headers;
+                FcsResponse response = FcsResponse.of(body, System.nanoTime() - start);
+                updateQuoteBook(endpoint, form, response);
+                return response;
+            }
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (sample != null) sample.error = FcsMetrics.ErrorClass.INTERRUPTED;
+            return FcsResponse.error("Request Error: Interrupted while waiting for rate limit", System.nanoTime() - start);
         } catch (Exception e) {
-            lastResponse = new HashMap<>();
-            lastResponse.put("status", false);
-            lastResponse.put("code", 0);
-            lastResponse.put("msg", "Request Error: " + e.getMessage());
-            lastResponse.put("response", null);
+            if (sample != null && sample.error == null) sample.error = FcsMetrics.classify(e);
+            return FcsResponse.error("Request Error: " + e.getMessage(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Feed daily latest-price responses into the configured quote book and store
+     */
+    private void updateQuoteBook(String endpoint, Map<String, Object> form, FcsResponse response) {
+        FcsQuoteBook book = config.getQuoteBook();
+        FcsQuoteStore store = config.getQuoteStore();
+        if (book == null && store == null || !response.isSuccess() || !endpoint.endsWith("/latest")) return;
+        Object period = form.get("period");
+        if (period != null && !"1D".equals(period)) return;
+        if (book != null) book.update(response.getResponse());
+        if (store != null) store.update(response.getResponse());
+    }
+
+    /**
+     * Read the top-level response object, handing "response" to the payload adapter
+     */
+    private Map<String, Object> readEnvelope(JsonReader reader, TypeAdapter<?> payloadAdapter) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("response".equals(name) && reader.peek() != JsonToken.NULL) {
+                body.put(name, payloadAdapter.read(reader));
+            } else {
+                body.put(name, objectAdapter.read(reader));
+            }
+        }
+        reader.endObject();
+        return body;
+    }
+
+    /**
+     * Make API request returning history candles as a columnar series
+     * @param endpoint History endpoint
+     * @param parameters Request parameters
+     * @return Candle series or null on error
+     */
+    FcsCandleSeries requestCandles(String endpoint, Map<String, Object> parameters) {
+        FcsResponse result = execute(endpoint, parameters, FcsCandleSeries.ADAPTER);
+        lastResponse.set(result);
+        return result.isSuccess() ? (FcsCandleSeries) result.getResponse() : null;
+    }
+
+    /**
+     * Get every candle of a date range
+     * With a candle store configured, stored candles are read from disk and
+     * only ranges not downloaded before are requested. Candles still forming
+     * are returned but not stored.
+     * @param endpoint History endpoint
+     * @param symbol Symbol
+     * @param period Candle period
+     * @param fromDate Range start ("2024-01-01" or "2024-01-01 09:30:00")
+     * @param toDate Range end, a bare date includes the whole day; null = now
+     * @return Candle series or null on error
+     */
+    FcsCandleSeries requestCandleRange(String endpoint, String symbol, String period, String fromDate, String toDate) {
+        long now = System.currentTimeMillis() / 1000;
+        long periodSeconds = FcsCandleSeries.periodSeconds(period);
+        long from = fromDate != null ? FcsCandleSeries.parseTime(fromDate) : -1;
+        long to = toDate == null || toDate.isEmpty() ? now : FcsCandleSeries.parseTime(toDate);
+        if (to >= 0 && toDate != null && toDate.length() <= 10) to += 86399;
+        if (periodSeconds <= 0 || from < 0 || to < 0) {
+            lastResponse.set(FcsResponse.error("Request Error: Invalid period or date range", 0));
             return null;
         }
+
+        FcsCandleStore store = config.getCandleStore();
+        if (store == null) {
+            FcsHistoryPager pager = candlePager(endpoint, symbol, period, from, to);
+            FcsCandleSeries all = pager.readAll();
+            if (isIncomplete(pager)) {
+                lastResponse.set(pager.getError());
+                return null;
+            }
+            return all.sliceByTime(from, to + 1);
+        }
+
+        // Candles starting after this may still change
+        long closedUntil = now - periodSeconds;
+        // Closed candles may take a while to be published; until then only what was received counts as covered
+        long publishedUntil = closedUntil - Math.max(periodSeconds, CANDLE_PUBLISH_DELAY);
+        FcsCandleSeries open = FcsCandleSeries.EMPTY;
+        try {
+            for (long[] gap : store.missing(endpoint, symbol, period, from, Math.min(to, now))) {
+                FcsHistoryPager pager = candlePager(endpoint, symbol, period, gap[0], gap[1]);
+                FcsCandleSeries fetched = pager.readAll().sliceByTime(gap[0], gap[1] + 1);
+                if (isIncomplete(pager)) {
+                    // Pages before the failure are contiguous: keep just the span they cover, the rest stays missing
+                    if (!fetched.isEmpty()) {
+                        long receivedTo = Math.min(fetched.getLastTime() + periodSeconds - 1, closedUntil);
+                        store.write(endpoint, symbol, period, fetched.sliceByTime(gap[0], receivedTo + 1), fetched.getFirstTime(), receivedTo);
+                    }
+                    lastResponse.set(pager.getError());
+                    return null;
+                }
+                long coveredTo = Math.min(gap[1], closedUntil);
+                if (coveredTo > publishedUntil) {
+                    long received = fetched.isEmpty() ? gap[0] - 1 : fetched.getLastTime() + periodSeconds - 1;
+                    coveredTo = Math.min(coveredTo, Math.max(received, publishedUntil));
+                }
+                store.write(endpoint, symbol, period, fetched.sliceByTime(gap[0], coveredTo + 1), gap[0], coveredTo);
+                open = open.concat(fetched.sliceByTime(Math.max(gap[0], coveredTo + 1), gap[1] + 1));
+            }
+            return store.read(endpoint, symbol, period, from, to).concat(open);
+        } catch (IOException e) {
+            lastResponse.set(FcsResponse.error("Request Error: Candle store: " + e.getMessage(), 0));
+            return null;
+        }
+    }
+
+    /** Pager over a time range, up to 1000 candles per page */
+    private FcsHistoryPager candlePager(String endpoint, String symbol, String period, long from, long to) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("symbol", symbol);
+        params.put("period", period);
+        params.put("length", 1000);
+        params.put("from", FcsCandleSeries.formatTime(from));
+        params.put("to", FcsCandleSeries.formatTime(to));
+        return new FcsHistoryPager(this, endpoint, params, 1);
+    }
+
+    /**
+     * True if paging stopped on a failure rather than at the end of data
+     * The API may answer a page past the end with a failure; a page that got
+     * no response at all means the rest of the range was never fetched.
+     */
+    private static boolean isIncomplete(FcsHistoryPager pager) {
+        FcsResponse error = pager.getError();
+        return error != null && (pager.getPage() == 0 || error.getBody() == null);
     }
 
     /**
@@ -188,11 +631,53 @@ public class FcsApi {
     }
 
     /**
-     * Get last response
+     * Make API request asynchronously on the configured executor
+     * @param endpoint API endpoint
+     * @param parameters Request parameters
+     * @return Future completed with response data, failed with FcsException if no response was received
+     */
+    public CompletableFuture<Map<String, Object>> requestAsync(String endpoint, Map<String, Object> parameters) {
+        return supplyAsync(() -> request(endpoint, parameters));
+    }
+
+    /**
+     * Make API request asynchronously and return a self-contained result
+     * @param endpoint API endpoint
+     * @param parameters Request parameters
+     * @return Future completed with FcsResponse, never with null
+     */
+    public CompletableFuture<FcsResponse> executeAsync(String endpoint, Map<String, Object> parameters) {
+        return supplyAsync(() -> execute(endpoint, parameters));
+    }
+
+    /**
+     * Run a blocking call on the configured executor
+     * A call that returns null after a failed request completes the future
+     * exceptionally with an FcsException carrying that response, since the
+     * caller cannot read the executor thread's last response. That response
+     * is cleared afterwards so pooled threads don't keep large bodies alive.
+     */
+    <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            lastResponse.remove();
+            try {
+                T result = call.get();
+                FcsResponse last = lastResponse.get();
+                if (result == null && last != null && !last.isSuccess()) throw new FcsException(last);
+                return result;
+            } finally {
+                lastResponse.remove();
+            }
+        }, config.getExecutor());
+    }
+
+    /**
+     * Get last response of the calling thread
      * @return Last response map
      */
     public Map<String, Object> getLastResponse() {
-        return lastResponse;
+        FcsResponse last = lastResponse.get();
+        return last != null ? last.toMap() : new HashMap<>();
     }
 
     /**
@@ -200,7 +685,8 @@ public class FcsApi {
      * @return Response data or null
      */
     public Object getResponseData() {
-        return lastResponse.get("response");
+        FcsResponse last = lastResponse.get();
+        return last != null ? last.getResponse() : null;
     }
 
     /**
@@ -208,11 +694,8 @@ public class FcsApi {
      * @return True if successful, false otherwise
      */
     public boolean isSuccess() {
-        Object status = lastResponse.get("status");
-        if (status instanceof Boolean) {
-            return (Boolean) status;
-        }
-        return false;
+        FcsResponse last = lastResponse.get();
+        return last != null && last.isSuccess();
     }
 
     /**
@@ -220,8 +703,7 @@ public class FcsApi {
      * @return Error message or null if successful
      */
     public String getError() {
-        if (isSuccess()) return null;
-        Object msg = lastResponse.get("msg");
-        return msg != null ? msg.toString() : "Unknown error";
+        FcsResponse last = lastResponse.get();
+        return last != null ? last.getError() : "Unknown error";
     }
 }
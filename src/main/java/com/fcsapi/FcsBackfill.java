@@ -0,0 +1,311 @@
+/**
+ * FCS API - History Backfill
+ *
+ * Downloads a date range of candles for many symbols with bounded
+ * parallelism. Progress can be checkpointed to a file so an interrupted
+ * job resumes where it stopped.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-symbol history backfill job
+ *
+ * Each worker takes one symbol at a time and walks its pages with
+ * FcsHistoryPager, so up to two requests per worker are in flight.
+ * Requests go through the client's rate limiter when one is configured.
+ *
+ * Usage:
+ *   FcsBackfill job = fcsapi.getStock().newBackfill(symbols, "1h", "2020-01-01", "2024-12-31");
+ *   job.setParallelism(8);
+ *   job.setCheckpointFile(new File("backfill.properties"));
+ *   job.setListener(listener);
+ *   job.run();
+ */
+public class FcsBackfill {
+
+    /**
+     * Receives pages and progress, called from worker threads
+     */
+    public interface Listener {
+
+        /** A page of candles was downloaded */
+        void onPage(String symbol, int page, FcsCandleSeries candles);
+
+        /** All pages of a symbol were downloaded */
+        default void onSymbolDone(String symbol) {
+        }
+
+        /** A symbol stopped on a failed request, it resumes after its last saved page on the next run */
+        default void onError(String symbol, FcsResponse error) {
+        }
+
+        /** Progress snapshot, sent after every page */
+        default void onProgress(Progress progress) {
+        }
+    }
+
+    /**
+     * Progress snapshot
+     */
+    public static final class Progress {
+        private final int symbolsTotal;
+        private final int symbolsDone;
+        private final int symbolsFailed;
+        private final long pages;
+        private final long candles;
+        private final long elapsedNanos;
+
+        Progress(int symbolsTotal, int symbolsDone, int symbolsFailed, long pages, long candles, long elapsedNanos) {
+            this.symbolsTotal = symbolsTotal;
+            this.symbolsDone = symbolsDone;
+            this.symbolsFailed = symbolsFailed;
+            this.pages = pages;
+            this.candles = candles;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getSymbolsTotal() { return symbolsTotal; }
+        public int getSymbolsDone() { return symbolsDone; }
+        public int getSymbolsFailed() { return symbolsFailed; }
+        public long getPages() { return pages; }
+        public long getCandles() { return candles; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /** Pages downloaded per second */
+        public double getPagesPerSecond() {
+            return elapsedNanos > 0 ? pages * 1e9 / elapsedNanos : 0;
+        }
+
+        /** Candles downloaded per second */
+        public double getCandlesPerSecond() {
+            return elapsedNanos > 0 ? candles * 1e9 / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d symbols (%d failed), %d pages, %d candles, %.1f pages/s, %.0f candles/s",
+                    symbolsDone, symbolsTotal, symbolsFailed, pages, candles, getPagesPerSecond(), getCandlesPerSecond());
+        }
+    }
+
+    private static final String DONE = "done";
+
+    private final FcsApi api;
+    private final String endpoint;
+    private final List<String> symbols;
+    private final Map<String, Object> baseParams;
+
+    private int parallelism = 4;
+    private int pageLength = 1000;
+    private File checkpointFile;
+    private Listener listener;
+
+    private final Properties checkpoint = new Properties();
+    private final AtomicInteger symbolsDone = new AtomicInteger();
+    private final AtomicInteger symbolsFailed = new AtomicInteger();
+    private final AtomicLong pages = new AtomicLong();
+    private final AtomicLong candles = new AtomicLong();
+    private volatile long startedAt;
+    private volatile boolean aborted;
+
+    /**
+     * Constructor
+     * @param api FcsApi instance
+     * @param endpoint History endpoint, e.g. "stock/history"
+     * @param symbols Symbols to backfill
+     * @param period Candle period: 1m,5m,15m,30m,1h,4h,1D,1W,1M
+     * @param fromDate Range start
+     * @param toDate Range end
+     */
+    FcsBackfill(FcsApi api, String endpoint, Collection<String> symbols, String period, String fromDate, String toDate) {
+        this.api = api;
+        this.endpoint = endpoint;
+        this.symbols = new ArrayList<>(new LinkedHashSet<>(symbols));
+        this.baseParams = new HashMap<>();
+        baseParams.put("period", period != null ? period : "1D");
+        if (fromDate != null && !fromDate.isEmpty()) baseParams.put("from", fromDate);
+        if (toDate != null && !toDate.isEmpty()) baseParams.put("to", toDate);
+    }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = Math.max(1, parallelism); }
+
+    public int getPageLength() { return pageLength; }
+    public void setPageLength(int pageLength) { this.pageLength = Math.max(1, pageLength); }
+
+    public File getCheckpointFile() { return checkpointFile; }
+    public void setCheckpointFile(File checkpointFile) { this.checkpointFile = checkpointFile; }
+
+    public Listener getListener() { return listener; }
+    public void setListener(Listener listener) { this.listener = listener; }
+
+    /**
+     * Current progress
+     */
+    public Progress getProgress() {
+        long elapsed = startedAt > 0 ? System.nanoTime() - startedAt : 0;
+        return new Progress(symbols.size(), symbolsDone.get(), symbolsFailed.get(), pages.get(), candles.get(), elapsed);
+    }
+
+    /**
+     * Run the backfill and block until every symbol is done or failed
+     * Symbols completed in a previous run (per checkpoint file) are skipped,
+     * partially downloaded symbols continue after their last saved page.
+     * @return Final progress
+     * @throws IOException if the checkpoint file cannot be read or written; a failed write stops the job
+     */
+    public Progress run() throws IOException {
+        loadCheckpoint();
+        startedAt = System.nanoTime();
+
+        ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+        for (String symbol : symbols) {
+            if (DONE.equals(checkpoint.getProperty(symbol))) symbolsDone.incrementAndGet();
+            else queue.add(symbol);
+        }
+
+        // Dedicated workers: they block on page futures that run on the client executor
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "fcsapi-backfill-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<CompletableFuture<Void>> running = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                running.add(CompletableFuture.runAsync(() -> {
+                    String symbol;
+                    while (!aborted && (symbol = queue.poll()) != null) {
+                        try {
+                            backfill(symbol);
+                        } catch (IOException e) {
+                            // Progress can no longer be saved, stop every worker
+                            aborted = true;
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }, workers));
+            }
+            CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            throw e;
+        } finally {
+            workers.shutdown();
+        }
+        saveCheckpoint();
+        return getProgress();
+    }
+
+    /**
+     * Run the backfill on the client executor
+     * @return Future with the final progress
+     */
+    public CompletableFuture<Progress> runAsync() {
+        return api.supplyAsync(() -> {
+            try {
+                return run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void backfill(String symbol) throws IOException {
+        int firstPage = 1;
+        String saved = checkpoint.getProperty(symbol);
+        if (saved != null) {
+            try {
+                firstPage = Integer.parseInt(saved) + 1;
+            } catch (NumberFormatException ignored) {
+                // Unreadable entry, start over
+            }
+        }
+
+        Map<String, Object> params = new HashMap<>(baseParams);
+        params.put("symbol", symbol);
+        params.put("length", pageLength);
+        FcsHistoryPager pager = new FcsHistoryPager(api, endpoint, params, firstPage);
+
+        while (pager.hasNext()) {
+            FcsCandleSeries page = pager.next();
+            pages.incrementAndGet();
+            candles.addAndGet(page.size());
+            if (listener != null) listener.onPage(symbol, pager.getPage(), page);
+            checkpoint(symbol, String.valueOf(pager.getPage()));
+            if (listener != null) listener.onProgress(getProgress());
+        }
+
+        // Only an empty, short or repeated page ends the range. A failed request on any
+        // page keeps the last saved page, so the next run fetches the rest.
+        if (pager.getError() != null) {
+            symbolsFailed.incrementAndGet();
+            if (listener != null) listener.onError(symbol, pager.getError());
+            return;
+        }
+        checkpoint(symbol, DONE);
+        symbolsDone.incrementAndGet();
+        if (listener != null) listener.onSymbolDone(symbol);
+    }
+
+    // ==================== Checkpoint ====================
+
+    private void loadCheckpoint() throws IOException {
+        if (checkpointFile == null || !checkpointFile.exists()) return;
+        synchronized (checkpoint) {
+            try (InputStream in = new FileInputStream(checkpointFile)) {
+                checkpoint.load(in);
+            }
+        }
+    }
+
+    private void checkpoint(String symbol, String value) throws IOException {
+        synchronized (checkpoint) {
+            checkpoint.setProperty(symbol, value);
+            saveCheckpoint();
+        }
+    }
+
+    private void saveCheckpoint() throws IOException {
+        if (checkpointFile == null) return;
+        synchronized (checkpoint) {
+            // Write then rename, so a crash never leaves a truncated checkpoint
+            File tmp = new File(checkpointFile.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(tmp)) {
+                checkpoint.store(out, "FCS API backfill checkpoint: symbol=last page or done");
+            }
+            if (!tmp.renameTo(checkpointFile)) {
+                if (!checkpointFile.delete() || !tmp.renameTo(checkpointFile)) {
+                    throw new IOException("Cannot write checkpoint " + checkpointFile);
+                }
+            }
+        }
+    }
+}
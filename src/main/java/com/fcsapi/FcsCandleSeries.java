@@ -0,0 +1,506 @@
+/**
+ * FCS API - Candle Series
+ *
+ * Columnar OHLCV candles backed by primitive arrays. Slices and
+ * concatenations share the underlying arrays instead of copying them.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.TimeZone;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Immutable OHLCV candle series
+ * Candles are ordered by time ascending, timestamps are Unix seconds.
+ * Gson writes it back as the server's array of candle objects.
+ */
+@JsonAdapter(FcsCandleSeries.CandleAdapter.class)
+public final class FcsCandleSeries {
+
+    /** Empty series */
+    public static final FcsCandleSeries EMPTY = new FcsCandleSeries(new Chunk[0]);
+
+    /** Streaming decoder for history "response" payloads (object or is_chart array form) */
+    static final TypeAdapter<FcsCandleSeries> ADAPTER = new CandleAdapter();
+
+    private final Chunk[] chunks;
+    private final int[] starts;
+    private final int size;
+
+    private FcsCandleSeries(Chunk[] chunks) {
+        this.chunks = chunks;
+        this.starts = new int[chunks.length];
+        int total = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            starts[i] = total;
+            total += chunks[i].length;
+        }
+        this.size = total;
+    }
+
+    // ==================== Access ====================
+
+    /** Number of candles */
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /** Candle open time (Unix seconds) */
+    public long getTime(int index) {
+        int ci = locate(index);
+        Chunk c = chunks[ci];
+        return c.time[c.offset + index - starts[ci]];
+    }
+
+    public double getOpen(int index) { return value(0, index); }
+
+    public double getHigh(int index) { return value(1, index); }
+
+    public double getLow(int index) { return value(2, index); }
+
+    public double getClose(int index) { return value(3, index); }
+
+    public double getVolume(int index) { return value(4, index); }
+
+    /** Time of the first candle, or -1 if empty */
+    public long getFirstTime() { return size > 0 ? getTime(0) : -1; }
+
+    /** Time of the last candle, or -1 if empty */
+    public long getLastTime() { return size > 0 ? getTime(size - 1) : -1; }
+
+    /**
+     * Index of the first candle with time >= the given time
+     * @param time Unix seconds
+     * @return Index, or size() if all candles are earlier
+     */
+    public int indexAtOrAfter(long time) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (getTime(mid) < time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ==================== Views ====================
+
+    /**
+     * View of candles [from, to) sharing this series' arrays
+     * @param from First index (inclusive)
+     * @param to Last index (exclusive)
+     * @return Series view
+     */
+    public FcsCandleSeries slice(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("slice(" + from + ", " + to + ") of " + size);
+        }
+        if (from == 0 && to == size) return this;
+        if (from == to) return EMPTY;
+
+        int first = chunkIndex(from);
+        int last = chunkIndex(to - 1);
+        Chunk[] out = new Chunk[last - first + 1];
+        for (int i = first; i <= last; i++) {
+            Chunk c = chunks[i];
+            int begin = i == first ? from - starts[i] : 0;
+            int end = i == last ? to - starts[i] : c.length;
+            out[i - first] = c.view(begin, end - begin);
+        }
+        return new FcsCandleSeries(out);
+    }
+
+    /**
+     * View of candles with from <= time < to
+     * @param fromTime Unix seconds (inclusive)
+     * @param toTime Unix seconds (exclusive)
+     * @return Series view
+     */
+    public FcsCandleSeries sliceByTime(long fromTime, long toTime) {
+        int from = indexAtOrAfter(fromTime);
+        int to = Math.max(from, indexAtOrAfter(toTime));
+        return slice(from, to);
+    }
+
+    /**
+     * Series followed by another, sharing both series' arrays
+     * The other series should start after this one ends to keep time order.
+     * @param other Series to append
+     * @return Concatenated series
+     */
+    public FcsCandleSeries concat(FcsCandleSeries other) {
+        if (other == null || other.size == 0) return this;
+        if (size == 0) return other;
+        Chunk[] out = Arrays.copyOf(chunks, chunks.length + other.chunks.length);
+        System.arraycopy(other.chunks, 0, out, chunks.length, other.chunks.length);
+        return new FcsCandleSeries(out);
+    }
+
+    // ==================== Copies ====================
+
+    /** Timestamps as a new array */
+    public long[] times() {
+        long[] out = new long[size];
+        int pos = 0;
+        for (Chunk c : chunks) {
+            System.arraycopy(c.time, c.offset, out, pos, c.length);
+            pos += c.length;
+        }
+        return out;
+    }
+
+    public double[] opens() { return column(0); }
+
+    public double[] highs() { return column(1); }
+
+    public double[] lows() { return column(2); }
+
+    public double[] closes() { return column(3); }
+
+    public double[] volumes() { return column(4); }
+
+    private double[] column(int field) {
+        double[] out = new double[size];
+        int pos = 0;
+        for (Chunk c : chunks) {
+            System.arraycopy(c.column(field), c.offset, out, pos, c.length);
+            pos += c.length;
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return "FcsCandleSeries[size=" + size + ", from=" + getFirstTime() + ", to=" + getLastTime() + "]";
+    }
+
+    // ==================== Internals ====================
+
+    private double value(int field, int index) {
+        int ci = locate(index);
+        Chunk c = chunks[ci];
+        return c.column(field)[c.offset + index - starts[ci]];
+    }
+
+    private int locate(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        return chunkIndex(index);
+    }
+
+    private int chunkIndex(int index) {
+        if (chunks.length == 1) return 0;
+        int pos = Arrays.binarySearch(starts, index);
+        return pos >= 0 ? pos : -pos - 2;
+    }
+
+    /**
+     * Contiguous range of shared column arrays
+     */
+    private static final class Chunk {
+        final long[] time;
+        final double[] open, high, low, close, volume;
+        final int offset, length;
+
+        Chunk(long[] time, double[] open, double[] high, double[] low, double[] close, double[] volume, int offset, int length) {
+            this.time = time;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.close = close;
+            this.volume = volume;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        Chunk view(int from, int count) {
+            return new Chunk(time, open, high, low, close, volume, offset + from, count);
+        }
+
+        double[] column(int field) {
+            switch (field) {
+                case 0: return open;
+                case 1: return high;
+                case 2: return low;
+                case 3: return close;
+                default: return volume;
+            }
+        }
+    }
+
+    // ==================== Builder ====================
+
+    /**
+     * Create a builder
+     * @param capacity Initial capacity in candles
+     * @return Builder
+     */
+    public static Builder builder(int capacity) {
+        return new Builder(capacity);
+    }
+
+    /**
+     * Growable columnar buffer, build() hands the arrays over without copying
+     */
+    public static final class Builder {
+        private long[] time;
+        private double[] open, high, low, close, volume;
+        private int size;
+
+        private Builder(int capacity) {
+            int cap = Math.max(capacity, 16);
+            time = new long[cap];
+            open = new double[cap];
+            high = new double[cap];
+            low = new double[cap];
+            close = new double[cap];
+            volume = new double[cap];
+        }
+
+        public int size() { return size; }
+
+        public long lastTime() { return size > 0 ? time[size - 1] : -1; }
+
+        /**
+         * Append one candle
+         * @return Self for method chaining
+         */
+        public Builder add(long t, double o, double h, double l, double c, double v) {
+            if (size == time.length) grow();
+            time[size] = t;
+            open[size] = o;
+            high[size] = h;
+            low[size] = l;
+            close[size] = c;
+            volume[size] = v;
+            size++;
+            return this;
+        }
+
+        /**
+         * Build the series, sorting by time if candles were added out of order
+         * The builder must not be used afterwards.
+         */
+        public FcsCandleSeries build() {
+            if (size == 0) return EMPTY;
+            sortByTime();
+            Chunk chunk = new Chunk(time, open, high, low, close, volume, 0, size);
+            time = null;
+            return new FcsCandleSeries(new Chunk[] { chunk });
+        }
+
+        private void grow() {
+            int cap = time.length * 2;
+            time = Arrays.copyOf(time, cap);
+            open = Arrays.copyOf(open, cap);
+            high = Arrays.copyOf(high, cap);
+            low = Arrays.copyOf(low, cap);
+            close = Arrays.copyOf(close, cap);
+            volume = Arrays.copyOf(volume, cap);
+        }
+
+        private void sortByTime() {
+            boolean ascending = true, descending = true;
+            for (int i = 1; i < size; i++) {
+                if (time[i] < time[i - 1]) ascending = false;
+                if (time[i] > time[i - 1]) descending = false;
+            }
+            if (ascending) return;
+            if (descending) {
+                // API returns newest first, reverse in place
+                for (int i = 0, j = size - 1; i < j; i++, j--) swap(i, j);
+                return;
+            }
+            // Insertion sort, input is expected to be nearly ordered
+            for (int i = 1; i < size; i++) {
+                for (int j = i; j > 0 && time[j] < time[j - 1]; j--) swap(j, j - 1);
+            }
+        }
+
+        private void swap(int i, int j) {
+            long t = time[i]; time[i] = time[j]; time[j] = t;
+            double d;
+            d = open[i]; open[i] = open[j]; open[j] = d;
+            d = high[i]; high[i] = high[j]; high[j] = d;
+            d = low[i]; low[i] = low[j]; low[j] = d;
+            d = close[i]; close[i] = close[j]; close[j] = d;
+            d = volume[i]; volume[i] = volume[j]; volume[j] = d;
+        }
+    }
+
+    // ==================== JSON Decoding ====================
+
+    /**
+     * Decodes candles without building intermediate maps
+     * Accepts an object keyed by time or an array, with candles given as
+     * objects (t/tm, o, h, l, c, v) or compact is_chart arrays [t, o, h, l, c, v].
+     * Writes an array of candle objects, leaving out missing prices.
+     */
+    static final class CandleAdapter extends TypeAdapter<FcsCandleSeries> {
+
+        @Override
+        public void write(JsonWriter out, FcsCandleSeries value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            out.beginArray();
+            for (int i = 0; i < value.size; i++) {
+                long t = value.getTime(i);
+                out.beginObject();
+                writeNumber(out.name("o"), value.getOpen(i));
+                writeNumber(out.name("h"), value.getHigh(i));
+                writeNumber(out.name("l"), value.getLow(i));
+                writeNumber(out.name("c"), value.getClose(i));
+                writeNumber(out.name("v"), value.getVolume(i));
+                out.name("t").value(t);
+                out.name("tm").value(format.format(new Date(t * 1000)));
+                out.endObject();
+            }
+            out.endArray();
+        }
+
+        private static void writeNumber(JsonWriter out, double value) throws IOException {
+            if (Double.isNaN(value) || Double.isInfinite(value)) out.nullValue();
+            else out.value(value);
+        }
+
+        @Override
+        public FcsCandleSeries read(JsonReader in) throws IOException {
+            Builder builder = new Builder(512);
+            JsonToken token = in.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    in.nextName();
+                    readCandle(in, builder);
+                }
+                in.endObject();
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) readCandle(in, builder);
+                in.endArray();
+            } else {
+                // Error payloads (e.g. a message string) carry no candles
+                in.skipValue();
+            }
+            return builder.build();
+        }
+
+        private static void readCandle(JsonReader in, Builder builder) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                long t = (long) readNumber(in);
+                double o = readNumber(in), h = readNumber(in), l = readNumber(in), c = readNumber(in);
+                double v = in.hasNext() ? readNumber(in) : 0;
+                while (in.hasNext()) in.skipValue();
+                in.endArray();
+                builder.add(t, o, h, l, c, v);
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                long t = -1;
+                double o = Double.NaN, h = Double.NaN, l = Double.NaN, c = Double.NaN, v = 0;
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "t": case "time": case "timestamp": t = (long) readNumber(in); break;
+                        case "tm": case "date": case "datetime":
+                            if (t < 0 && in.peek() == JsonToken.STRING) t = parseTime(in.nextString());
+                            else in.skipValue();
+                            break;
+                        case "o": case "open": o = readNumber(in); break;
+                        case "h": case "high": h = readNumber(in); break;
+                        case "l": case "low": l = readNumber(in); break;
+                        case "c": case "close": c = readNumber(in); break;
+                        case "v": case "volume": v = readNumber(in); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+                if (t >= 0) builder.add(t, o, h, l, c, Double.isNaN(v) ? 0 : v);
+            } else {
+                in.skipValue();
+            }
+        }
+
+        private static double readNumber(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NUMBER) return in.nextDouble();
+            if (token == JsonToken.STRING) {
+                String s = in.nextString();
+                try {
+                    return s.isEmpty() ? Double.NaN : Double.parseDouble(s);
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+            in.skipValue();
+            return Double.NaN;
+        }
+    }
+
+    // ==================== Time Helpers ====================
+
+    /**
+     * Parse an API date ("2024-01-31") or datetime ("2024-01-31 15:30:00") as UTC
+     * @return Unix seconds, or -1 if unparseable
+     */
+    static long parseTime(String value) {
+        SimpleDateFormat format = new SimpleDateFormat(value.length() > 10 ? "yyyy-MM-dd HH:mm:ss" : "yyyy-MM-dd");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            return format.parse(value).getTime() / 1000;
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Format Unix seconds as an API datetime in UTC
+     */
+    static String formatTime(long time) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(time * 1000));
+    }
+
+    /**
+     * Nominal length of a period code in seconds
+     * Months count as 31 days, the longest a monthly candle can span.
+     * @param period 1m,5m,15m,30m,1h,4h,1D,1W,1M or minutes ("1", "60", "240")
+     * @return Seconds, or -1 for an unknown code
+     */
+    static long periodSeconds(String period) {
+        if (period == null || period.isEmpty()) return 86400;
+        char unit = period.charAt(period.length() - 1);
+        String digits = Character.isDigit(unit) ? period : period.substring(0, period.length() - 1);
+        long n;
+        try {
+            n = digits.isEmpty() ? 1 : Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        switch (unit) {
+            case 'm': return n * 60;
+            case 'h': case 'H': return n * 3600;
+            case 'd': case 'D': return n * 86400;
+            case 'w': case 'W': return n * 7 * 86400;
+            case 'M': return n * 31 * 86400;
+            default: return Character.isDigit(unit) ? n * 60 : -1;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/**
+ * FCS API - Candle Store
+ *
+ * Persistent on-disk history cache. Candles are kept in memory-mapped files
+ * per symbol and period, together with the time ranges already downloaded,
+ * so repeated range requests only fetch what is missing.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only memory-mapped candle store
+ *
+ * Each series (history endpoint, symbol, period) is a file of fixed-size
+ * records [time, open, high, low, close, volume] sorted by time, so range
+ * lookups are a binary search over the mapped file. Candles newer than the
+ * last stored one are appended; older ones (backfilled gaps) are merged in by
+ * rewriting the file. A ".ranges" file next to it lists the time ranges
+ * already downloaded, which lets empty stretches (weekends, holidays) count
+ * as covered.
+ *
+ * Usage:
+ *   config.setCandleStore(new FcsCandleStore(new File("candles")));
+ *   FcsCandleSeries aapl = fcsapi.getStock().getHistoryRange("NASDAQ:AAPL", "1h", "2020-01-01", "2024-12-31");
+ *
+ * Safe for concurrent use within one JVM. Files are written with a plain
+ * append or a write-then-rename, so a crash never corrupts stored candles.
+ * A file's mapping is released before it is truncated or replaced, which
+ * Windows requires.
+ */
+public class FcsCandleStore {
+
+    private static final int MAGIC = 0x46435343; // "FCSC"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int RECORD = 48;
+
+    private final File directory;
+    private final Map<String, Series> series = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param directory Directory for candle files, created if missing
+     */
+    public FcsCandleStore(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create candle store directory " + directory);
+        }
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Read stored candles of a time range
+     * @param endpoint History endpoint, e.g. "stock/history"
+     * @param symbol Symbol, e.g. "NASDAQ:AAPL"
+     * @param period Candle period
+     * @param fromTime Range start, Unix seconds, inclusive
+     * @param toTime Range end, Unix seconds, inclusive
+     * @return Stored candles in the range, possibly empty
+     * @throws IOException if the file cannot be read
+     */
+    public FcsCandleSeries read(String endpoint, String symbol, String period, long fromTime, long toTime) throws IOException {
+        return series(endpoint, symbol, period).read(fromTime, toTime);
+    }
+
+    /**
+     * Time ranges within [fromTime, toTime] not downloaded yet
+     * @return Missing ranges as {from, to} pairs, inclusive, in time order
+     * @throws IOException if the ranges file cannot be read
+     */
+    public List<long[]> missing(String endpoint, String symbol, String period, long fromTime, long toTime) throws IOException {
+        return series(endpoint, symbol, period).missing(fromTime, toTime);
+    }
+
+    /**
+     * Store downloaded candles and mark their range as covered
+     * Candles already stored with the same time are replaced.
+     * @param candles Candles downloaded for the range
+     * @param fromTime Start of the downloaded range, Unix seconds
+     * @param toTime End of the downloaded range, Unix seconds
+     * @throws IOException if the files cannot be written
+     */
+    public void write(String endpoint, String symbol, String period, FcsCandleSeries candles, long fromTime, long toTime) throws IOException {
+        series(endpoint, symbol, period).write(candles, fromTime, toTime);
+    }
+
+    /**
+     * Number of stored candles of a series
+     * @throws IOException if the file cannot be read
+     */
+    public int size(String endpoint, String symbol, String period) throws IOException {
+        return series(endpoint, symbol, period).size();
+    }
+
+    /**
+     * Delete a stored series and its covered ranges
+     * @throws IOException if the files cannot be deleted
+     */
+    public void delete(String endpoint, String symbol, String period) throws IOException {
+        series(endpoint, symbol, period).delete();
+    }
+
+    private Series series(String endpoint, String symbol, String period) {
+        long seconds = FcsCandleSeries.periodSeconds(period);
+        if (seconds <= 0) throw new IllegalArgumentException("Unknown period: " + period);
+
+        // Period in seconds keeps "1m" and "1M" apart on case-insensitive file systems
+        String module = endpoint.substring(0, Math.max(endpoint.indexOf('/'), 0));
+        String name = sanitize(module) + "_" + sanitize(symbol.trim().toUpperCase()) + "_" + seconds + "s";
+        synchronized (series) {
+            return series.computeIfAbsent(name, n -> new Series(new File(directory, n + ".candles"), new File(directory, n + ".ranges")));
+        }
+    }
+
+    private static String sanitize(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            out.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' ? c : '_');
+        }
+        return out.toString();
+    }
+
+    // ==================== Unmapping ====================
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            // JDK 9+
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field f = unsafeClass.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * Release a mapping immediately; the buffer must not be used afterwards
+     * Falls back to leaving it to the garbage collector when the JDK offers no way.
+     */
+    static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null) return;
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else {
+                // JDK 8: DirectByteBuffer.cleaner().clean()
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // Unmapped when collected
+        }
+    }
+
+    /**
+     * One stored series: candle file, its read-only mapping and covered ranges
+     */
+    private static final class Series {
+        private final File file;
+        private final File rangesFile;
+        private MappedByteBuffer mapped;
+        private List<long[]> ranges;
+
+        Series(File file, File rangesFile) {
+            this.file = file;
+            this.rangesFile = rangesFile;
+        }
+
+        synchronized int size() throws IOException {
+            return count(map());
+        }
+
+        synchronized FcsCandleSeries read(long fromTime, long toTime) throws IOException {
+            ByteBuffer buf = map();
+            int count = count(buf);
+            int from = search(buf, count, fromTime);
+            int to = toTime == Long.MAX_VALUE ? count : search(buf, count, toTime + 1);
+            if (from >= to) return FcsCandleSeries.EMPTY;
+
+            FcsCandleSeries.Builder builder = FcsCandleSeries.builder(to - from);
+            for (int i = from; i < to; i++) {
+                int p = HEADER + i * RECORD;
+                builder.add(buf.getLong(p), buf.getDouble(p + 8), buf.getDouble(p + 16), buf.getDouble(p + 24),
+                        buf.getDouble(p + 32), buf.getDouble(p + 40));
+            }
+            return builder.build();
+        }
+
+        synchronized List<long[]> missing(long fromTime, long toTime) throws IOException {
+            List<long[]> gaps = new ArrayList<>();
+            long cursor = fromTime;
+            for (long[] r : ranges()) {
+                if (r[1] < cursor) continue;
+                if (r[0] > toTime) break;
+                if (r[0] > cursor) gaps.add(new long[] { cursor, r[0] - 1 });
+                cursor = Math.max(cursor, r[1] + 1);
+                if (cursor > toTime) break;
+            }
+            if (cursor <= toTime) gaps.add(new long[] { cursor, toTime });
+            return gaps;
+        }
+
+        synchronized void write(FcsCandleSeries candles, long fromTime, long toTime) throws IOException {
+            if (!candles.isEmpty()) {
+                ByteBuffer buf = map();
+                int count = count(buf);
+                long last = count > 0 ? buf.getLong(HEADER + (count - 1) * RECORD) : Long.MIN_VALUE;
+                if (candles.getFirstTime() > last) append(candles, count);
+                else merge(buf, count, candles);
+            }
+            addRange(fromTime, toTime);
+        }
+
+        synchronized void delete() throws IOException {
+            release();
+            ranges = new ArrayList<>();
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(rangesFile.toPath());
+        }
+
+        // ==================== Candle File ====================
+
+        /**
+         * Read-only mapping of the whole file, remapped after it grows
+         */
+        private ByteBuffer map() throws IOException {
+            long length = file.length();
+            if (length < HEADER) return ByteBuffer.allocate(0);
+            if (mapped == null || mapped.capacity() != length) {
+                release();
+                try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                    mapped = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+                }
+                if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                    release();
+                    throw new IOException("Not a candle store file: " + file);
+                }
+            }
+            return mapped;
+        }
+
+        /** Complete records only, a torn append at the end is ignored */
+        private static int count(ByteBuffer buf) {
+            return buf.capacity() < HEADER ? 0 : (buf.capacity() - HEADER) / RECORD;
+        }
+
+        /** Index of the first record with time >= t */
+        private static int search(ByteBuffer buf, int count, long t) {
+            int lo = 0, hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (buf.getLong(HEADER + mid * RECORD) < t) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * Unmap the file now instead of when the buffer is collected
+         * Records are always copied out under the series lock, so nothing still reads it.
+         */
+        private void release() {
+            MappedByteBuffer old = mapped;
+            mapped = null;
+            unmap(old);
+        }
+
+        private void append(FcsCandleSeries candles, int count) throws IOException {
+            release();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                FileChannel channel = raf.getChannel();
+                long end = HEADER + (long) count * RECORD;
+                if (count == 0) {
+                    end = 0;
+                    ByteBuffer header = header();
+                    while (header.hasRemaining()) end += channel.write(header, end);
+                }
+                // Drop a torn record left by an interrupted append
+                channel.truncate(end);
+                ByteBuffer records = records(candles, 0, candles.size());
+                while (records.hasRemaining()) end += channel.write(records, end);
+            }
+        }
+
+        private void merge(ByteBuffer buf, int count, FcsCandleSeries candles) throws IOException {
+            File tmp = new File(file.getPath() + ".tmp");
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+                raf.setLength(0);
+                FileChannel channel = raf.getChannel();
+                ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+                out.put(header());
+
+                // Two-way merge by time; a downloaded candle replaces a stored one
+                int i = 0, j = 0, n = candles.size();
+                while (i < count || j < n) {
+                    long stored = i < count ? buf.getLong(HEADER + i * RECORD) : Long.MAX_VALUE;
+                    long fresh = j < n ? candles.getTime(j) : Long.MAX_VALUE;
+                    if (out.remaining() < RECORD) flush(channel, out);
+                    if (fresh <= stored) {
+                        putRecord(out, candles, j++);
+                        if (fresh == stored) i++;
+                    } else {
+                        ByteBuffer record = buf.duplicate();
+                        record.limit(HEADER + (i + 1) * RECORD).position(HEADER + i * RECORD);
+                        out.put(record);
+                        i++;
+                    }
+                }
+                flush(channel, out);
+            }
+            release();
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+            out.flip();
+            while (out.hasRemaining()) channel.write(out);
+            out.clear();
+        }
+
+        private static ByteBuffer header() {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(VERSION);
+            header.clear();
+            return header;
+        }
+
+        private static ByteBuffer records(FcsCandleSeries candles, int from, int to) {
+            ByteBuffer out = ByteBuffer.allocate((to - from) * RECORD);
+            for (int i = from; i < to; i++) putRecord(out, candles, i);
+            out.flip();
+            return out;
+        }
+
+        private static void putRecord(ByteBuffer out, FcsCandleSeries candles, int i) {
+            out.putLong(candles.getTime(i))
+                .putDouble(candles.getOpen(i))
+                .putDouble(candles.getHigh(i))
+                .putDouble(candles.getLow(i))
+                .putDouble(candles.getClose(i))
+                .putDouble(candles.getVolume(i));
+        }
+
+        // ==================== Covered Ranges ====================
+
+        private List<long[]> ranges() throws IOException {
+            if (ranges != null) return ranges;
+            List<long[]> loaded = new ArrayList<>();
+            if (rangesFile.exists()) {
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(Files.newInputStream(rangesFile.toPath()), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        int sep = line.indexOf(' ');
+                        if (sep <= 0) continue;
+                        try {
+                            loaded.add(new long[] { Long.parseLong(line.substring(0, sep)), Long.parseLong(line.substring(sep + 1).trim()) });
+                        } catch (NumberFormatException ignored) {
+                            // Skip damaged line, the range is downloaded again
+                        }
+                    }
+                }
+            }
+            ranges = normalize(loaded);
+            return ranges;
+        }
+
+        private void addRange(long fromTime, long toTime) throws IOException {
+            if (fromTime > toTime) return;
+            List<long[]> updated = new ArrayList<>(ranges());
+            updated.add(new long[] { fromTime, toTime });
+            updated = normalize(updated);
+
+            File tmp = new File(rangesFile.getPath() + ".tmp");
+            try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tmp.toPath()), StandardCharsets.UTF_8))) {
+                for (long[] r : updated) {
+                    out.write(r[0] + " " + r[1]);
+                    out.newLine();
+                }
+            }
+            Files.move(tmp.toPath(), rangesFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ranges = updated;
+        }
+
+        /** Sort and merge overlapping or adjacent ranges */
+        private static List<long[]> normalize(List<long[]> input) {
+            input.sort((a, b) -> Long.compare(a[0], b[0]));
+            List<long[]> merged = new ArrayList<>();
+            for (long[] r : input) {
+                long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && r[0] <= last[1] + 1) last[1] = Math.max(last[1], r[1]);
+                else merged.add(new long[] { r[0], r[1] });
+            }
+            return merged;
+        }
+    }
+}
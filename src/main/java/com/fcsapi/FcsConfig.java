@@ -15,8 +15,15 @@ package com.fcsapi;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * FCS API Configuration class
@@ -45,18 +52,74 @@ public class FcsConfig {
     /** Connection timeout in seconds */
     private int connectTimeout = 5;
 
+    /** API base URL (point it at a proxy or a local stub server) */
+    private String baseUrl = "https://api-v4.fcsapi.com/";
+
+    /** HTTP transport, defaults to pooled keep-alive FcsHttpTransport */
+    private FcsTransport transport;
+
+    /** Executor for *Async calls, defaults to virtual threads on JDK 21+ */
+    private Executor executor;
+
+    /** Timer for batching windows and polling, defaults to a shared daemon thread */
+    private ScheduledExecutorService scheduler;
+
+    /** Latest-price batching: max wait before a batch is sent, in milliseconds */
+    private int batchWindow = 5;
+
+    /** Latest-price batching: max symbols per batched request */
+    private int batchMaxSymbols = 50;
+
+    /** Symbol lists longer than this are split into chunks (latest endpoints) */
+    private int chunkSize = 100;
+
+    /** Max chunks of one call sent in parallel */
+    private int chunkConcurrency = 4;
+
+    /** Client-side rate limiter, null = no limit */
+    private volatile FcsRateLimiter rateLimiter;
+
+    /** Share one network call between identical concurrent requests */
+    private volatile boolean coalesceRequests = true;
+
+    /** Response cache, null = disabled */
+    private volatile FcsResponseCache cache;
+
+    /** On-disk history store used by getHistoryRange(), null = disabled */
+    private volatile FcsCandleStore candleStore;
+
+    /** Quote book updated from every daily latest-price response, null = disabled */
+    private volatile FcsQuoteBook quoteBook;
+
+    /** Off-heap quote store updated like the quote book, null = disabled */
+    private volatile FcsQuoteStore quoteStore;
+
+    /** Per-endpoint request metrics, null = disabled */
+    private volatile FcsMetrics metrics;
+
+    /** Cached request auth params, reused until shortly before the token expires */
+    private volatile AuthCache authCache;
+
+    /** Last issued token, shared by all generateToken() calls within the same second */
+    private volatile Map<String, Object> issuedToken;
+
+    /** Thread-confined HMAC instance, re-keyed only when the secret changes */
+    private static final ThreadLocal<HmacHolder> HMAC = new ThreadLocal<>();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
     // Getters and Setters
     public String getAuthMethod() { return authMethod; }
-    public void setAuthMethod(String authMethod) { this.authMethod = authMethod; }
+    public void setAuthMethod(String authMethod) { this.authMethod = authMethod; authCache = null; }
 
     public String getAccessKey() { return accessKey; }
-    public void setAccessKey(String accessKey) { this.accessKey = accessKey; }
+    public void setAccessKey(String accessKey) { this.accessKey = accessKey; authCache = null; issuedToken = null; }
 
     public String getPublicKey() { return publicKey; }
-    public void setPublicKey(String publicKey) { this.publicKey = publicKey; }
+    public void setPublicKey(String publicKey) { this.publicKey = publicKey; authCache = null; issuedToken = null; }
 
     public int getTokenExpiry() { return tokenExpiry; }
-    public void setTokenExpiry(int tokenExpiry) { this.tokenExpiry = tokenExpiry; }
+    public void setTokenExpiry(int tokenExpiry) { this.tokenExpiry = tokenExpiry; authCache = null; issuedToken = null; }
 
     public int getTimeout() { return timeout; }
     public void setTimeout(int timeout) { this.timeout = timeout; }
@@ -64,6 +127,70 @@ public class FcsConfig {
     public int getConnectTimeout() { return connectTimeout; }
     public void setConnectTimeout(int connectTimeout) { this.connectTimeout = connectTimeout; }
 
+    public String getBaseUrl() { return baseUrl; }
+    public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/"; }
+
+    public synchronized FcsTransport getTransport() {
+        if (transport == null) transport = new FcsHttpTransport();
+        return transport;
+    }
+    public synchronized void setTransport(FcsTransport transport) { this.transport = transport; }
+
+    public synchronized Executor getExecutor() {
+        if (executor == null) executor = DefaultExecutor.INSTANCE;
+        return executor;
+    }
+    public synchronized void setExecutor(Executor executor) { this.executor = executor; }
+
+    public synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) scheduler = DefaultScheduler.INSTANCE;
+        return scheduler;
+    }
+    public synchronized void setScheduler(ScheduledExecutorService scheduler) { this.scheduler = scheduler; }
+
+    public int getBatchWindow() { return batchWindow; }
+    public void setBatchWindow(int batchWindow) { this.batchWindow = batchWindow; }
+
+    public int getBatchMaxSymbols() { return batchMaxSymbols; }
+    public void setBatchMaxSymbols(int batchMaxSymbols) { this.batchMaxSymbols = batchMaxSymbols; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getChunkConcurrency() { return chunkConcurrency; }
+    public void setChunkConcurrency(int chunkConcurrency) { this.chunkConcurrency = chunkConcurrency; }
+
+    public FcsRateLimiter getRateLimiter() { return rateLimiter; }
+    public void setRateLimiter(FcsRateLimiter rateLimiter) { this.rateLimiter = rateLimiter; }
+
+    public boolean isCoalesceRequests() { return coalesceRequests; }
+    public void setCoalesceRequests(boolean coalesceRequests) { this.coalesceRequests = coalesceRequests; }
+
+    public FcsResponseCache getCache() { return cache; }
+    public void setCache(FcsResponseCache cache) { this.cache = cache; }
+
+    public FcsCandleStore getCandleStore() { return candleStore; }
+    public void setCandleStore(FcsCandleStore candleStore) { this.candleStore = candleStore; }
+
+    public FcsQuoteBook getQuoteBook() { return quoteBook; }
+    public void setQuoteBook(FcsQuoteBook quoteBook) { this.quoteBook = quoteBook; }
+
+    public FcsQuoteStore getQuoteStore() { return quoteStore; }
+    public void setQuoteStore(FcsQuoteStore quoteStore) { this.quoteStore = quoteStore; }
+
+    public FcsMetrics getMetrics() { return metrics; }
+    public void setMetrics(FcsMetrics metrics) { this.metrics = metrics; }
+
+    /**
+     * Limit requests to the plan quota
+     * Live quotes are served before bulk fundamentals when requests queue up.
+     * @param perMinute Requests per minute (0 = unlimited)
+     * @param perMonth Requests per calendar month (0 = unlimited)
+     */
+    public void setRateLimit(int perMinute, long perMonth) {
+        this.rateLimiter = new FcsRateLimiter(perMinute, perMonth);
+    }
+
     /**
      * Create config with access_key method
      * @param accessKey Your API access key
@@ -104,11 +231,18 @@ public class FcsConfig {
 
     /**
      * Generate authentication token
-     * Use this on your backend, then send token to frontend
-     * @return Map with _token, _expiry, _public_key
+     * Use this on your backend, then send token to frontend.
+     * Calls within the same second share one token, so issuing tokens to
+     * many sessions costs one HMAC per second.
+     * @return Read-only map with _token, _expiry, _public_key
      */
     public Map<String, Object> generateToken() {
         long expiry = System.currentTimeMillis() / 1000 + tokenExpiry;
+        Map<String, Object> issued = issuedToken;
+        if (issued != null && (Long) issued.get("_expiry") == expiry) {
+            return issued;
+        }
+
         String message = publicKey + expiry;
         String token = computeHmacSha256(message, accessKey);
 
@@ -116,25 +250,38 @@ public class FcsConfig {
         result.put("_token", token);
         result.put("_expiry", expiry);
         result.put("_public_key", publicKey);
-        return result;
+        issued = Collections.unmodifiableMap(result);
+        issuedToken = issued;
+        return issued;
     }
 
     /**
      * Get authentication parameters for API request
-     * @return Map with authentication parameters
+     * The result is cached; tokens are renewed once 80% of their lifetime has passed.
+     * @return Read-only map with authentication parameters
      */
     public Map<String, Object> getAuthParams() {
-        Map<String, Object> params = new HashMap<>();
+        AuthCache cache = authCache;
+        long now = System.currentTimeMillis();
+        if (cache != null && now < cache.refreshAt) {
+            return cache.params;
+        }
 
+        Map<String, Object> params;
+        long refreshAt = Long.MAX_VALUE;
         switch (authMethod) {
             case "ip_whitelist":
-                return params;
+                params = Collections.emptyMap();
+                break;
             case "token":
-                return generateToken();
+                params = generateToken();
+                refreshAt = now + tokenExpiry * 800L;
+                break;
             default: // access_key
-                params.put("access_key", accessKey);
-                return params;
+                params = Collections.singletonMap("access_key", accessKey);
         }
+        authCache = new AuthCache(params, refreshAt);
+        return params;
     }
 
     /**
@@ -142,20 +289,77 @@ public class FcsConfig {
      */
     private static String computeHmacSha256(String message, String secret) {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(secretKeySpec);
-            byte[] hashBytes = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
-
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+            HmacHolder holder = HMAC.get();
+            if (holder == null || !holder.secret.equals(secret)) {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+                holder = new HmacHolder(secret, mac);
+                HMAC.set(holder);
+            }
+            byte[] hashBytes = holder.mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+
+            char[] hex = new char[hashBytes.length * 2];
+            for (int i = 0; i < hashBytes.length; i++) {
+                hex[i * 2] = HEX[(hashBytes[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX[hashBytes[i] & 0xf];
             }
-            return hexString.toString();
+            return new String(hex);
         } catch (Exception e) {
             throw new RuntimeException("Failed to compute HMAC-SHA256", e);
         }
     }
+
+    private static final class AuthCache {
+        final Map<String, Object> params;
+        final long refreshAt;
+
+        AuthCache(Map<String, Object> params, long refreshAt) {
+            this.params = params;
+            this.refreshAt = refreshAt;
+        }
+    }
+
+    private static final class HmacHolder {
+        final String secret;
+        final Mac mac;
+
+        HmacHolder(String secret, Mac mac) {
+            this.secret = secret;
+            this.mac = mac;
+        }
+    }
+
+    /**
+     * Shared default executor, created on first async call
+     * Uses virtual threads when the runtime supports them (JDK 21+),
+     * otherwise a cached pool of daemon threads.
+     */
+    private static final class DefaultExecutor {
+        static final ExecutorService INSTANCE = create();
+
+        private static ExecutorService create() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                AtomicInteger count = new AtomicInteger();
+                ThreadFactory factory = r -> {
+                    Thread t = new Thread(r, "fcsapi-async-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                };
+                return Executors.newCachedThreadPool(factory);
+            }
+        }
+    }
+
+    /**
+     * Shared default scheduler, a single daemon thread that only dispatches work
+     */
+    private static final class DefaultScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fcsapi-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
 }
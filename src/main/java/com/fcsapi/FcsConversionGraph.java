@@ -0,0 +1,462 @@
+/**
+ * FCS API - Conversion Graph
+ *
+ * Converts amounts between currencies locally, from rates already fetched
+ * with getBasePrices / getCrossRates, instead of one converter request per
+ * conversion.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local currency conversion graph
+ *
+ * Every known rate is an edge between two currencies, with its inverse as
+ * the reverse edge. A conversion without a direct rate goes through the path
+ * chosen by the route policy: fewest hops (ties go to the fresher path) or
+ * freshest (the path whose oldest rate is newest, ties go to fewer hops).
+ *
+ * Routes are cached per currency pair and hold references to their edges, so
+ * a rate update is picked up by cached routes without recomputing them; the
+ * cache is cleared only when edges are added (or, for FRESHEST, on every
+ * update). A cached conversion is a map lookup and one multiplication per hop.
+ *
+ * Usage:
+ *   FcsConversionGraph fx = fcsapi.getConversionGraph();
+ *   fx.track("forex", "USD").track("crypto", "BTC");
+ *   fx.refresh();
+ *   fx.refreshEvery(1, TimeUnit.MINUTES);
+ *   double eur = fx.convert("GBP", "EUR", 100);
+ */
+public class FcsConversionGraph {
+
+    /**
+     * Route policy
+     */
+    public enum Route {
+        /** Fewest conversions, fresher path on ties */
+        SHORTEST,
+        /** Newest oldest-rate, fewer conversions on ties */
+        FRESHEST
+    }
+
+    /** ISO 4217 codes plus common crypto quote assets, for splitting tickers without a separator */
+    private static final Set<String> KNOWN_CURRENCIES = new HashSet<>(Arrays.asList(
+            "BTC", "ETH", "BNB", "USDT", "USDC", "BUSD", "FDUSD", "TUSD", "DAI"));
+
+    static {
+        for (Currency c : Currency.getAvailableCurrencies()) KNOWN_CURRENCIES.add(c.getCurrencyCode());
+    }
+
+    private final FcsApi api;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> currencies = new ArrayList<>();
+    private final List<Map<Integer, Edge>> edges = new ArrayList<>();
+    private final ConcurrentHashMap<Long, Edge[]> routes = new ConcurrentHashMap<>();
+    private final List<String[]> tracked = new ArrayList<>();
+    private ScheduledFuture<?> refresh;
+
+    private volatile Route route = Route.SHORTEST;
+    private volatile long maxAge;
+
+    /**
+     * Constructor
+     * @param api FcsApi instance
+     */
+    public FcsConversionGraph(FcsApi api) {
+        this.api = api;
+    }
+
+    public Route getRoute() { return route; }
+    public void setRoute(Route route) { this.route = route; clearRoutes(); }
+
+    public long getMaxAge() { return maxAge; }
+
+    /**
+     * Ignore rates older than this when choosing routes
+     * @param millis Max rate age in milliseconds, 0 = no limit
+     */
+    public void setMaxAge(long millis) { this.maxAge = millis; clearRoutes(); }
+
+    /** Known currencies */
+    public synchronized List<String> getCurrencies() {
+        return new ArrayList<>(currencies);
+    }
+
+    // ==================== Feeding ====================
+
+    /**
+     * Register a base currency fetched by refresh()
+     * @param market "forex" or "crypto"
+     * @param base Base currency, e.g. "USD"
+     * @return Self for method chaining
+     */
+    public synchronized FcsConversionGraph track(String market, String base) {
+        tracked.add(new String[] { market, base.trim().toUpperCase() });
+        return this;
+    }
+
+    /**
+     * Fetch base prices of every tracked base and update the rates
+     * @return Number of rates updated
+     */
+    public int refresh() {
+        List<String[]> bases;
+        synchronized (this) {
+            bases = new ArrayList<>(tracked);
+        }
+        int updated = 0;
+        for (String[] t : bases) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("symbol", t[1]);
+            params.put("type", t[0]);
+            FcsResponse response = api.execute(t[0] + "/base_latest", params);
+            if (response.isSuccess()) updated += update(t[1], response.getResponse());
+        }
+        return updated;
+    }
+
+    /**
+     * Refresh periodically; the requests run on the client executor
+     * @param period Time between refreshes
+     * @param unit Unit of period
+     */
+    public synchronized void refreshEvery(long period, TimeUnit unit) {
+        stopRefresh();
+        refresh = api.getConfig().getScheduler().scheduleWithFixedDelay(() -> CompletableFuture.runAsync(this::refresh, api.getConfig().getExecutor()), period, period, unit);
+    }
+
+    /**
+     * Stop periodic refreshes
+     */
+    public synchronized void stopRefresh() {
+        if (refresh != null) {
+            refresh.cancel(false);
+            refresh = null;
+        }
+    }
+
+    /**
+     * Update rates from a base-price or cross-rate response
+     * Accepts a map of currency to rate ({"EUR": 0.92, ...}), a map or list of
+     * quote items with tickers ("FX:EURUSD") and prices, or a mix.
+     * @param base Base currency of the response, e.g. "USD"
+     * @param response Result of getBasePrices / getCrossRates, or its "response" field
+     * @return Number of rates updated
+     */
+    public int update(String base, Object response) {
+        if (response instanceof Map && ((Map<?, ?>) response).containsKey("status")) {
+            response = ((Map<?, ?>) response).get("response");
+        }
+        String hint = base != null ? base.trim().toUpperCase() : null;
+        long now = System.currentTimeMillis();
+        int updated = 0;
+        if (response instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) response).entrySet()) {
+                updated += updateItem(hint, String.valueOf(e.getKey()), e.getValue(), now);
+            }
+        } else if (response instanceof List) {
+            for (Object item : (List<?>) response) updated += updateItem(hint, null, item, now);
+        }
+        if (updated > 0 && route == Route.FRESHEST) clearRoutes();
+        return updated;
+    }
+
+    private int updateItem(String base, String key, Object value, long now) {
+        double rate;
+        long time = now;
+        String ticker = key;
+        if (value instanceof Number || value instanceof String) {
+            rate = FcsQuoteBook.number(Collections.singletonMap("c", value), "c");
+        } else if (value instanceof Map) {
+            Map<?, ?> item = (Map<?, ?>) value;
+            Object t = item.get("ticker");
+            if (t == null) t = item.get("symbol");
+            if (t != null) ticker = t.toString();
+            Map<?, ?> fields = FcsQuoteBook.fieldsOf(item);
+            rate = FcsQuoteBook.number(fields, "c");
+            if (Double.isNaN(rate)) rate = FcsQuoteBook.number(fields, "price");
+            if (Double.isNaN(rate)) rate = FcsQuoteBook.number(fields, "rate");
+            double t2 = FcsQuoteBook.number(fields, "t");
+            if (!Double.isNaN(t2) && t2 > 0) time = (long) t2 * 1000;
+        } else {
+            return 0;
+        }
+        if (ticker == null || Double.isNaN(rate) || rate <= 0) return 0;
+
+        String[] pair = splitPair(ticker, base);
+        if (pair == null) return 0;
+        updateRate(pair[0], pair[1], rate, time);
+        return 1;
+    }
+
+    /**
+     * Currencies of a ticker: "FX:EURUSD", "EUR/USD", "BTCUSDT" (with base hint) or a bare
+     * currency ("EUR" or "USDT", meaning base to it)
+     * Tickers without a separator are only split into known codes: ISO 4217 currencies,
+     * common crypto quote assets and currencies already in the graph.
+     */
+    private String[] splitPair(String ticker, String base) {
+        String t = ticker.trim().toUpperCase();
+        int colon = t.indexOf(':');
+        if (colon >= 0) t = t.substring(colon + 1);
+        for (char sep : new char[] { '/', '-', '_' }) {
+            int i = t.indexOf(sep);
+            if (i > 0 && i < t.length() - 1) return new String[] { t.substring(0, i), t.substring(i + 1) };
+        }
+        if (base != null && !t.equals(base)) {
+            if (t.length() <= 5) return new String[] { base, t };
+            if (t.startsWith(base) && isKnown(t.substring(base.length()))) return new String[] { base, t.substring(base.length()) };
+            if (t.endsWith(base) && isKnown(t.substring(0, t.length() - base.length()))) {
+                return new String[] { t.substring(0, t.length() - base.length()), base };
+            }
+        }
+        if (t.length() == 6 && isKnown(t.substring(0, 3)) && isKnown(t.substring(3))) {
+            return new String[] { t.substring(0, 3), t.substring(3) };
+        }
+        return null;
+    }
+
+    private boolean isKnown(String currency) {
+        return KNOWN_CURRENCIES.contains(currency) || ids.containsKey(currency);
+    }
+
+    /**
+     * Set one rate
+     * @param from Currency sold, e.g. "EUR"
+     * @param to Currency bought, e.g. "USD"
+     * @param rate Units of "to" per unit of "from"
+     * @param timeMillis Rate time
+     */
+    public void updateRate(String from, String to, double rate, long timeMillis) {
+        if (!(rate > 0) || Double.isInfinite(rate)) throw new IllegalArgumentException("Invalid rate: " + rate);
+        synchronized (this) {
+            int a = idOf(from.trim().toUpperCase());
+            int b = idOf(to.trim().toUpperCase());
+            if (a == b) return;
+            Edge forward = edges.get(a).get(b);
+            Edge backward = edges.get(b).get(a);
+            if (forward == null) {
+                forward = new Edge(a, b);
+                backward = new Edge(b, a);
+                edges.get(a).put(b, forward);
+                edges.get(b).put(a, backward);
+                // Under the same lock as the edge, so no route searched without it is cached afterwards
+                routes.clear();
+            }
+            forward.set(rate, timeMillis);
+            backward.set(1 / rate, timeMillis);
+        }
+    }
+
+    /**
+     * Id of a known currency, trying the name as given before normalizing it
+     */
+    private Integer knownId(String currency) {
+        Integer id = ids.get(currency);
+        return id != null ? id : ids.get(currency.trim().toUpperCase());
+    }
+
+    private int idOf(String currency) {
+        Integer id = ids.get(currency);
+        if (id == null) {
+            id = currencies.size();
+            ids.put(currency, id);
+            currencies.add(currency);
+            edges.add(new HashMap<>());
+        }
+        return id;
+    }
+
+    // ==================== Conversion ====================
+
+    /**
+     * Rate from one currency to another
+     * @return Units of "to" per unit of "from", NaN if no route
+     */
+    public double rate(String from, String to) {
+        Edge[] path = route(from, to);
+        if (path == null) return Double.NaN;
+        double rate = 1;
+        for (Edge e : path) rate *= e.rate;
+        return rate;
+    }
+
+    /**
+     * Convert an amount
+     * @return Converted amount, NaN if no route
+     */
+    public double convert(String from, String to, double amount) {
+        return amount * rate(from, to);
+    }
+
+    /**
+     * Convert many amounts of one currency
+     * @param amounts Amounts in "from"
+     * @param out Converted amounts (may be the same array), NaN if no route
+     */
+    public void convert(String from, String to, double[] amounts, double[] out) {
+        double rate = rate(from, to);
+        for (int i = 0; i < amounts.length; i++) out[i] = amounts[i] * rate;
+    }
+
+    /**
+     * Convert amounts in mixed currencies into one currency, e.g. to value a portfolio
+     * @param from Currency of each amount
+     * @param to Target currency
+     * @param amounts Amounts
+     * @param out Converted amounts (may be the same array), NaN where no route
+     */
+    public void convert(String[] from, String to, double[] amounts, double[] out) {
+        Map<String, Double> rates = new HashMap<>();
+        for (int i = 0; i < amounts.length; i++) {
+            Double rate = rates.get(from[i]);
+            if (rate == null) {
+                rate = rate(from[i], to);
+                rates.put(from[i], rate);
+            }
+            out[i] = amounts[i] * rate;
+        }
+    }
+
+    /**
+     * Currencies along the route used for a conversion
+     * @return Currencies from "from" to "to", empty if no route
+     */
+    public List<String> path(String from, String to) {
+        Edge[] path = route(from, to);
+        if (path == null) return Collections.emptyList();
+        List<String> out = new ArrayList<>();
+        synchronized (this) {
+            out.add(currencies.get(knownId(from)));
+            for (Edge e : path) out.add(currencies.get(e.to));
+        }
+        return out;
+    }
+
+    private Edge[] route(String from, String to) {
+        Integer a = knownId(from);
+        Integer b = knownId(to);
+        if (a == null || b == null) return null;
+        if (a.equals(b)) return new Edge[0];
+
+        long key = (long) a << 32 | b;
+        Edge[] path = routes.get(key);
+        if (path == null) {
+            path = searchAndCache(key, a, b);
+            if (path == null) return null;
+        }
+        if (maxAge > 0) {
+            long oldest = System.currentTimeMillis() - maxAge;
+            for (Edge e : path) {
+                if (e.time < oldest) {
+                    // A rate went stale since the route was cached
+                    routes.remove(key);
+                    return searchAndCache(key, a, b);
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Search and cache a route in one step
+     * Routes are cleared under the same lock, so a route found before a
+     * change cannot be cached after the change cleared the others.
+     */
+    private synchronized Edge[] searchAndCache(long key, int from, int to) {
+        Edge[] path = search(from, to);
+        if (path != null) routes.put(key, path);
+        return path;
+    }
+
+    private synchronized void clearRoutes() {
+        routes.clear();
+    }
+
+    /**
+     * Dijkstra over (hops, oldest rate time) ordered by the route policy
+     */
+    private synchronized Edge[] search(int from, int to) {
+        int n = currencies.size();
+        long oldestAllowed = maxAge > 0 ? System.currentTimeMillis() - maxAge : Long.MIN_VALUE;
+        boolean freshest = route == Route.FRESHEST;
+
+        int[] hops = new int[n];
+        long[] fresh = new long[n];
+        Edge[] via = new Edge[n];
+        boolean[] done = new boolean[n];
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        hops[from] = 0;
+        fresh[from] = Long.MAX_VALUE;
+
+        PriorityQueue<long[]> queue = new PriorityQueue<>((x, y) -> freshest
+                ? x[2] != y[2] ? Long.compare(y[2], x[2]) : Long.compare(x[1], y[1])
+                : x[1] != y[1] ? Long.compare(x[1], y[1]) : Long.compare(y[2], x[2]));
+        queue.add(new long[] { from, 0, Long.MAX_VALUE });
+        while (!queue.isEmpty()) {
+            long[] top = queue.poll();
+            int node = (int) top[0];
+            if (done[node]) continue;
+            done[node] = true;
+            if (node == to) break;
+            for (Edge e : edges.get(node).values()) {
+                if (done[e.to] || e.time < oldestAllowed) continue;
+                int h = hops[node] + 1;
+                long f = Math.min(fresh[node], e.time);
+                boolean better = via[e.to] == null
+                        || (freshest ? f > fresh[e.to] || f == fresh[e.to] && h < hops[e.to]
+                                     : h < hops[e.to] || h == hops[e.to] && f > fresh[e.to]);
+                if (better) {
+                    hops[e.to] = h;
+                    fresh[e.to] = f;
+                    via[e.to] = e;
+                    queue.add(new long[] { e.to, h, f });
+                }
+            }
+        }
+        if (via[to] == null) return null;
+
+        Edge[] path = new Edge[hops[to]];
+        for (int node = to, i = path.length - 1; node != from; node = via[node].from, i--) path[i] = via[node];
+        return path;
+    }
+
+    /**
+     * Directed rate, updated in place so cached routes see new values
+     */
+    private static final class Edge {
+        final int from;
+        final int to;
+        volatile double rate;
+        volatile long time;
+
+        Edge(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        void set(double rate, long time) {
+            this.rate = rate;
+            this.time = time;
+        }
+    }
+}
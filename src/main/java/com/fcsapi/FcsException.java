@@ -0,0 +1,38 @@
+/**
+ * FCS API - Exception
+ *
+ * Failure of an async call. The failed response is kept so callers get the
+ * same code and message the blocking call reports through getLastResponse().
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+/**
+ * Failed API call, carrying its response
+ */
+public class FcsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient FcsResponse response;
+
+    /**
+     * Constructor
+     * @param response Failed response
+     */
+    public FcsException(FcsResponse response) {
+        super(response.getError());
+        this.response = response;
+    }
+
+    /**
+     * Failed response
+     * @return Response with status, code and msg of the failure
+     */
+    public FcsResponse getResponse() {
+        return response;
+    }
+}
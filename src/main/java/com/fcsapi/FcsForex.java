@@ -7,8 +7,10 @@
 
 package com.fcsapi;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Forex API Module
@@ -16,6 +18,7 @@ import java.util.Map;
 public class FcsForex {
 
     private final FcsApi api;
+    private volatile FcsLatestBatcher latestBatcher;
     private static final String BASE = "forex/";
 
     /**
@@ -80,6 +83,49 @@ public class FcsForex {
         return getLatestPrice(symbol, "1D", null, null, false);
     }
 
+    /**
+     * Get latest price of one symbol, batched with other concurrent calls
+     * Calls arriving within the FcsConfig batch window are sent as one
+     * comma-separated request.
+     * @param symbol Single symbol
+     * @param period Time period
+     * @return Future with the symbol's quote item, or null on error
+     */
+    public CompletableFuture<Map<String, Object>> getLatestPriceBatched(String symbol, String period) {
+        return getLatestBatcher().get(symbol, period);
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestPriceBatched(String symbol) {
+        return getLatestBatcher().get(symbol, "1D");
+    }
+
+    /**
+     * Subscribe to latest prices, receiving only quotes that changed
+     * @param symbols Symbols to poll
+     * @param listener Receives changed quotes
+     * @return Subscription handle, cancel() to stop
+     */
+    public FcsSubscriptions.Subscription subscribe(Collection<String> symbols, FcsSubscriptions.Listener listener) {
+        return api.getSubscriptions().subscribe(BASE + "latest", symbols, listener);
+    }
+
+    /**
+     * Get the batcher behind getLatestPriceBatched (lazy loading)
+     */
+    public FcsLatestBatcher getLatestBatcher() {
+        FcsLatestBatcher batcher = latestBatcher;
+        if (batcher == null) {
+            synchronized (this) {
+                if (latestBatcher == null) {
+                    FcsConfig config = api.getConfig();
+                    latestBatcher = new FcsLatestBatcher(api, BASE + "latest", config.getBatchWindow(), config.getBatchMaxSymbols());
+                }
+                batcher = latestBatcher;
+            }
+        }
+        return batcher;
+    }
+
     /**
      * Get all latest prices by exchange
      */
@@ -189,15 +235,7 @@ public class FcsForex {
      * Get historical prices (OHLCV candles)
      */
     public Map<String, Object> getHistory(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("symbol", symbol);
-        params.put("period", period != null ? period : "1D");
-        params.put("length", length);
-        params.put("page", page);
-        if (fromDate != null && !fromDate.isEmpty()) params.put("from", fromDate);
-        if (toDate != null && !toDate.isEmpty()) params.put("to", toDate);
-        if (isChart) params.put("is_chart", 1);
-        return api.request(BASE + "history", params);
+        return api.request(BASE + "history", historyParams(symbol, period, length, fromDate, toDate, page, isChart));
     }
 
     public Map<String, Object> getHistory(String symbol, String period, int length) {
@@ -208,6 +246,60 @@ public class FcsForex {
         return getHistory(symbol, "1D", 300, null, null, 1, false);
     }
 
+    /**
+     * Get historical prices as a columnar candle series
+     * Decoded straight from the response, without Map/Double boxing.
+     * @return Candle series (time ascending) or null on error
+     */
+    public FcsCandleSeries getHistorySeries(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        return api.requestCandles(BASE + "history", historyParams(symbol, period, length, fromDate, toDate, page, isChart));
+    }
+
+    public FcsCandleSeries getHistorySeries(String symbol, String period, int length) {
+        return getHistorySeries(symbol, period, length, null, null, 1, false);
+    }
+
+    /**
+     * Iterate over every history page of a date range
+     * The next page is fetched while the current one is processed.
+     * @param length Candles per page
+     * @return Pager yielding one candle series per page
+     */
+    public FcsHistoryPager getHistoryPages(String symbol, String period, int length, String fromDate, String toDate) {
+        return new FcsHistoryPager(api, BASE + "history", historyParams(symbol, period, length, fromDate, toDate, 1, false), 1);
+    }
+
+    /**
+     * Get every candle of a date range as one series
+     * With FcsConfig.setCandleStore() set, candles downloaded before are read
+     * from disk and only missing ranges are requested.
+     * @param toDate Range end, null = now
+     * @return Candle series (time ascending) or null on error
+     */
+    public FcsCandleSeries getHistoryRange(String symbol, String period, String fromDate, String toDate) {
+        return api.requestCandleRange(BASE + "history", symbol, period, fromDate, toDate);
+    }
+
+    /**
+     * Create a backfill job downloading a date range for many symbols in parallel
+     * @return FcsBackfill job, start it with run() or runAsync()
+     */
+    public FcsBackfill newBackfill(Collection<String> symbols, String period, String fromDate, String toDate) {
+        return new FcsBackfill(api, BASE + "history", symbols, period, fromDate, toDate);
+    }
+
+    private static Map<String, Object> historyParams(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("symbol", symbol);
+        params.put("period", period != null ? period : "1D");
+        params.put("length", length);
+        params.put("page", page);
+        if (fromDate != null && !fromDate.isEmpty()) params.put("from", fromDate);
+        if (toDate != null && !toDate.isEmpty()) params.put("to", toDate);
+        if (isChart) params.put("is_chart", 1);
+        return params;
+    }
+
     // ==================== Profile ====================
 
     /**
@@ -404,4 +496,116 @@ public class FcsForex {
         if (baseUrl != null && !baseUrl.isEmpty()) params.put("base", baseUrl);
         return api.request(BASE + "multi_url", params);
     }
+
+    // ==================== Async ====================
+
+    // Non-blocking counterparts, run on the executor from FcsConfig.setExecutor()
+
+    public CompletableFuture<Map<String, Object>> getSymbolsListAsync(String type, String subType, String exchange) {
+        return api.supplyAsync(() -> getSymbolsList(type, subType, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestPriceAsync(String symbol) {
+        return api.supplyAsync(() -> getLatestPrice(symbol));
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestPriceAsync(String symbol, String period, String type, String exchange, boolean getProfile) {
+        return api.supplyAsync(() -> getLatestPrice(symbol, period, type, exchange, getProfile));
+    }
+
+    public CompletableFuture<Map<String, Object>> getAllPricesAsync(String exchange, String period, String type) {
+        return api.supplyAsync(() -> getAllPrices(exchange, period, type));
+    }
+
+    public CompletableFuture<Map<String, Object>> getCommoditiesAsync(String symbol, String period) {
+        return api.supplyAsync(() -> getCommodities(symbol, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> getCommoditySymbolsAsync() {
+        return api.supplyAsync(() -> getCommoditySymbols());
+    }
+
+    public CompletableFuture<Map<String, Object>> convertAsync(String pair1, String pair2, double amount, String type) {
+        return api.supplyAsync(() -> convert(pair1, pair2, amount, type));
+    }
+
+    public CompletableFuture<Map<String, Object>> getBasePricesAsync(String symbol, String type, String exchange, boolean fallback) {
+        return api.supplyAsync(() -> getBasePrices(symbol, type, exchange, fallback));
+    }
+
+    public CompletableFuture<Map<String, Object>> getCrossRatesAsync(String symbol, String exchange, String type, String period, boolean crossrates, boolean fallback) {
+        return api.supplyAsync(() -> getCrossRates(symbol, exchange, type, period, crossrates, fallback));
+    }
+
+    public CompletableFuture<Map<String, Object>> getHistoryAsync(String symbol, String period, int length) {
+        return api.supplyAsync(() -> getHistory(symbol, period, length));
+    }
+
+    public CompletableFuture<Map<String, Object>> getHistoryAsync(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        return api.supplyAsync(() -> getHistory(symbol, period, length, fromDate, toDate, page, isChart));
+    }
+
+    public CompletableFuture<FcsCandleSeries> getHistorySeriesAsync(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        return api.supplyAsync(() -> getHistorySeries(symbol, period, length, fromDate, toDate, page, isChart));
+    }
+
+    public CompletableFuture<FcsCandleSeries> getHistoryRangeAsync(String symbol, String period, String fromDate, String toDate) {
+        return api.supplyAsync(() -> getHistoryRange(symbol, period, fromDate, toDate));
+    }
+
+    public CompletableFuture<Map<String, Object>> getProfileAsync(String symbol) {
+        return api.supplyAsync(() -> getProfile(symbol));
+    }
+
+    public CompletableFuture<Map<String, Object>> getExchangesAsync(String type, String subType) {
+        return api.supplyAsync(() -> getExchanges(type, subType));
+    }
+
+    public CompletableFuture<Map<String, Object>> advancedAsync(Map<String, Object> parameters) {
+        return api.supplyAsync(() -> advanced(parameters));
+    }
+
+    public CompletableFuture<Map<String, Object>> getMovingAveragesAsync(String symbol, String period, String exchange) {
+        return api.supplyAsync(() -> getMovingAverages(symbol, period, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getIndicatorsAsync(String symbol, String period, String exchange) {
+        return api.supplyAsync(() -> getIndicators(symbol, period, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getPivotPointsAsync(String symbol, String period, String exchange) {
+        return api.supplyAsync(() -> getPivotPoints(symbol, period, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getPerformanceAsync(String symbol, String exchange) {
+        return api.supplyAsync(() -> getPerformance(symbol, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getEconomyCalendarAsync(String symbol, String country, String fromDate, String toDate) {
+        return api.supplyAsync(() -> getEconomyCalendar(symbol, country, fromDate, toDate));
+    }
+
+    public CompletableFuture<Map<String, Object>> getTopGainersAsync(String type, int limit, String period, String exchange) {
+        return api.supplyAsync(() -> getTopGainers(type, limit, period, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getTopLosersAsync(String type, int limit, String period, String exchange) {
+        return api.supplyAsync(() -> getTopLosers(type, limit, period, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getMostActiveAsync(String type, int limit, String period, String exchange) {
+        return api.supplyAsync(() -> getMostActive(type, limit, period, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getSortedDataAsync(String sortColumn, String sortDirection, int limit, String type, String exchange, String period) {
+        return api.supplyAsync(() -> getSortedData(sortColumn, sortDirection, limit, type, exchange, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> searchAsync(String query, String type, String exchange) {
+        return api.supplyAsync(() -> search(query, type, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> multiUrlAsync(String[] urls, String baseUrl) {
+        return api.supplyAsync(() -> multiUrl(urls, baseUrl));
+    }
 }
@@ -0,0 +1,152 @@
+/**
+ * FCS API - History Pager
+ *
+ * Walks every page of a history range. While the caller processes page N,
+ * page N+1 is already being fetched.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over history pages with one-page prefetch
+ *
+ * Iteration stops at the first empty, short or repeated page, or when a
+ * request fails (see getError()). Not thread-safe; use one pager per consumer.
+ */
+public class FcsHistoryPager implements Iterator<FcsCandleSeries>, Iterable<FcsCandleSeries> {
+
+    private final FcsApi api;
+    private final String endpoint;
+    private final Map<String, Object> params;
+    private final int length;
+
+    private int page;
+    private int nextPage;
+    private int pendingPage;
+    private int readyPage;
+    private CompletableFuture<FcsResponse> pending;
+    private FcsCandleSeries ready;
+    private long lastFirstTime = Long.MIN_VALUE;
+    private FcsResponse error;
+
+    /**
+     * Constructor
+     * @param api FcsApi instance
+     * @param endpoint History endpoint, e.g. "stock/history"
+     * @param params History parameters (symbol, period, length, from, to)
+     * @param firstPage Page to start from (1-based)
+     */
+    FcsHistoryPager(FcsApi api, String endpoint, Map<String, Object> params, int firstPage) {
+        this.api = api;
+        this.endpoint = endpoint;
+        this.params = new HashMap<>(params);
+        Object len = params.get("length");
+        this.length = len instanceof Number ? ((Number) len).intValue() : 300;
+        this.nextPage = firstPage;
+        this.pending = fetch();
+    }
+
+    /** Page number of the last page returned by next() */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Failed response that ended iteration
+     * The API may also report a page past the end of data as a failure.
+     * @return Failed response, or null if iteration ended on an empty or short page
+     */
+    public FcsResponse getError() {
+        return error;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (ready != null) return true;
+        if (pending == null) return false;
+
+        FcsResponse res = pending.join();
+        pending = null;
+        if (!res.isSuccess()) {
+            error = res;
+            return false;
+        }
+
+        FcsCandleSeries series = res.getResponse() instanceof FcsCandleSeries ? (FcsCandleSeries) res.getResponse() : FcsCandleSeries.EMPTY;
+        if (series.isEmpty() || series.getFirstTime() == lastFirstTime) {
+            // Past the last page; some endpoints repeat the final page instead of returning nothing
+            return false;
+        }
+        lastFirstTime = series.getFirstTime();
+        ready = series;
+        readyPage = pendingPage;
+
+        // A full page means there may be more; fetch it while the caller works
+        if (series.size() >= length) {
+            pending = fetch();
+        }
+        return true;
+    }
+
+    @Override
+    public FcsCandleSeries next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        FcsCandleSeries series = ready;
+        ready = null;
+        page = readyPage;
+        return series;
+    }
+
+    @Override
+    public Iterator<FcsCandleSeries> iterator() {
+        return this;
+    }
+
+    /**
+     * Pages as a sequential stream
+     */
+    public Stream<FcsCandleSeries> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Read all remaining pages into one series, ordered by time
+     * Pages are joined without copying their arrays.
+     * @return Candle series
+     */
+    public FcsCandleSeries readAll() {
+        List<FcsCandleSeries> pages = new ArrayList<>();
+        while (hasNext()) pages.add(next());
+        pages.sort(Comparator.comparingLong(FcsCandleSeries::getFirstTime));
+
+        FcsCandleSeries all = FcsCandleSeries.EMPTY;
+        for (FcsCandleSeries p : pages) {
+            // Drop candles overlapping the previous page
+            all = all.concat(all.isEmpty() ? p : p.sliceByTime(all.getLastTime() + 1, Long.MAX_VALUE));
+        }
+        return all;
+    }
+
+    private CompletableFuture<FcsResponse> fetch() {
+        pendingPage = nextPage++;
+        Map<String, Object> request = new HashMap<>(params);
+        request.put("page", pendingPage);
+        return api.supplyAsync(() -> api.execute(endpoint, request, FcsCandleSeries.ADAPTER));
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * FCS API - Default HTTP Transport
+ *
+ * Keep-alive transport built on HttpURLConnection. Connections are reused
+ * through the JDK keep-alive cache as long as every response body is fully
+ * read and closed, which this transport guarantees.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled keep-alive HTTP transport
+ *
+ * Settings:
+ * - maxConnectionsPerHost: concurrent open connections per host for this transport,
+ *   extra callers wait up to the connect timeout
+ *
+ * Idle keep-alive connections are pooled by the JDK for the whole process, not per
+ * transport. Its size and idle time are JVM-wide system properties read once, when
+ * the first HTTP connection is made; set them with configureKeepAlive() at startup
+ * if the JDK defaults do not fit.
+ */
+public class FcsHttpTransport implements FcsTransport {
+
+    /** Default concurrent connections per host */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 64;
+
+    private final int maxConnectionsPerHost;
+    private final ConcurrentHashMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with default settings
+     */
+    public FcsHttpTransport() {
+        this(DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * Constructor
+     * @param maxConnectionsPerHost Concurrent open connections per host
+     */
+    public FcsHttpTransport(int maxConnectionsPerHost) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerHost must be positive");
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public int getMaxConnectionsPerHost() { return maxConnectionsPerHost; }
+
+    /**
+     * Configure the process-wide JDK keep-alive cache
+     *
+     * Sets "http.maxConnections" and "http.keepAlive.time.server" (JDK 20+). These
+     * apply to every HttpURLConnection in the JVM, including other libraries, and
+     * only take effect when called before the first HTTP connection of the process.
+     * @param maxIdlePerHost Idle keep-alive connections kept per host
+     * @param idleTimeout Seconds an idle connection stays pooled
+     */
+    public static void configureKeepAlive(int maxIdlePerHost, int idleTimeout) {
+        if (maxIdlePerHost < 1 || idleTimeout < 1) {
+            throw new IllegalArgumentException("Keep-alive settings must be positive");
+        }
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(maxIdlePerHost));
+        System.setProperty("http.keepAlive.time.server", String.valueOf(idleTimeout));
+    }
+
+    @Override
+    public Response post(String url, byte[] formBody, FcsConfig config) throws IOException {
+        URL urlObj = new URL(url);
+        Semaphore permits = hostPermits.computeIfAbsent(urlObj.getAuthority(), h -> new Semaphore(maxConnectionsPerHost));
+        acquire(permits, config.getConnectTimeout());
+
+        try {
+            HttpURLConnection conn = (HttpURLConnection) urlObj.openConnection();
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            conn.setRequestProperty("Accept", "application/json");
+            conn.setConnectTimeout(config.getConnectTimeout() * 1000);
+            conn.setReadTimeout(config.getTimeout() * 1000);
+            conn.setDoOutput(true);
+            conn.setFixedLengthStreamingMode(formBody.length);
+
+            // Connect explicitly to time it apart from the exchange; reused keep-alive connections are near zero
+            long connectStart = System.nanoTime();
+            conn.connect();
+            long connectNanos = System.nanoTime() - connectStart;
+
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write(formBody);
+            }
+
+            int status = conn.getResponseCode();
+            InputStream body = status >= 400 ? conn.getErrorStream() : conn.getInputStream();
+            return new PooledResponse(status, body, permits, connectNanos);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private static void acquire(Semaphore permits, int timeoutSeconds) throws IOException {
+        try {
+            if (!permits.tryAcquire(Math.max(timeoutSeconds, 1), TimeUnit.SECONDS)) {
+                throw new IOException("Connection pool exhausted");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Response that drains its body on close so the socket can be reused
+     */
+    private static final class PooledResponse implements Response {
+
+        private final int status;
+        private final InputStream body;
+        private final Semaphore permits;
+        private final long connectNanos;
+        private boolean closed;
+
+        PooledResponse(int status, InputStream body, Semaphore permits, long connectNanos) {
+            this.status = status;
+            this.body = body != null ? body : new ByteArrayInputStream(new byte[0]);
+            this.permits = permits;
+            this.connectNanos = connectNanos;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public long getConnectNanos() {
+            return connectNanos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                byte[] skip = new byte[1024];
+                while (body.read(skip) != -1) {
+                    // Drain remaining bytes, keep-alive requires a fully consumed body
+                }
+                body.close();
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
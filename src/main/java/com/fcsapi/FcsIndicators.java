@@ -0,0 +1,469 @@
+/**
+ * FCS API - Indicator Engine
+ *
+ * Computes moving averages, oscillators and pivot points locally from
+ * candles, updating in constant time per candle, so getMovingAverages /
+ * getIndicators / getPivotPoints polling can be replaced by history
+ * candles and latest prices.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Incremental technical indicators for one symbol and period
+ *
+ * Feed candles in time order. The last candle is treated as forming: feeding
+ * the same time again revises it, feeding a later time closes it. Every
+ * indicator keeps running state over closed candles only (running sums, EMA
+ * and Wilder averages, monotonic min/max windows) and applies the forming
+ * candle on read, so an update costs O(1) whatever the window length.
+ *
+ * Results use the server's names: "EMA5".."EMA200" and "SMA5".."SMA200"
+ * under "EMA"/"SMA", "RSI14", "STOCH9_6", "MACD12_26", "ATR14", each as
+ * {"v": value, "s": "Buy"|"Sell"|"Neutral"}, and pivot points per method
+ * ("classic", "fibonacci", "camarilla", "woodie", "demark") with "pp",
+ * "R1".., "S1".. computed from the previous candle. Values are NaN until
+ * enough candles have been fed (SMA200 needs 200).
+ *
+ * Usage:
+ *   FcsIndicators ta = new FcsIndicators();
+ *   ta.update(fcsapi.getForex().getHistorySeries("EURUSD", "1h", 300));
+ *   ta.update(time, open, high, low, close, volume);   // each new or revised candle
+ *   double rsi = ta.getRsi();
+ *   Map&lt;String, Object&gt; indicators = ta.getIndicators();
+ */
+public class FcsIndicators {
+
+    /** Moving average lengths reported by getMovingAverages() */
+    public static final int[] MA_PERIODS = { 5, 10, 20, 50, 100, 200 };
+
+    public static final String BUY = "Buy";
+    public static final String SELL = "Sell";
+    public static final String NEUTRAL = "Neutral";
+
+    private static final int RSI_PERIOD = 14;
+    private static final int STOCH_K = 9;
+    private static final int STOCH_D = 6;
+    private static final int MACD_FAST = 12;
+    private static final int MACD_SLOW = 26;
+    private static final int MACD_SIGNAL = 9;
+    private static final int ATR_PERIOD = 14;
+
+    private final Sma[] sma = new Sma[MA_PERIODS.length];
+    private final Ema[] ema = new Ema[MA_PERIODS.length];
+    private final Ema gain = Ema.wilder(RSI_PERIOD);
+    private final Ema loss = Ema.wilder(RSI_PERIOD);
+    private final Ema macdFast = new Ema(MACD_FAST);
+    private final Ema macdSlow = new Ema(MACD_SLOW);
+    private final Ema macdSignal = new Ema(MACD_SIGNAL);
+    private final Window highest = new Window(STOCH_K, true);
+    private final Window lowest = new Window(STOCH_K, false);
+    private final Sma stochD = new Sma(STOCH_D);
+    private final Ema atr = Ema.wilder(ATR_PERIOD);
+
+    // Forming candle
+    private long time = -1;
+    private double open, high, low, close, volume;
+
+    // Last closed candle
+    private int closed;
+    private double prevOpen = Double.NaN, prevHigh = Double.NaN, prevLow = Double.NaN, prevClose = Double.NaN;
+
+    /**
+     * Constructor
+     */
+    public FcsIndicators() {
+        for (int i = 0; i < MA_PERIODS.length; i++) {
+            sma[i] = new Sma(MA_PERIODS[i]);
+            ema[i] = new Ema(MA_PERIODS[i]);
+        }
+    }
+
+    // ==================== Updates ====================
+
+    /**
+     * Feed candles, skipping those older than the last one fed
+     * @param series Candles, e.g. from getHistorySeries()
+     * @return Self for method chaining
+     */
+    public synchronized FcsIndicators update(FcsCandleSeries series) {
+        if (series == null) return this;
+        for (int i = series.indexAtOrAfter(time); i < series.size(); i++) {
+            update(series.getTime(i), series.getOpen(i), series.getHigh(i), series.getLow(i), series.getClose(i), series.getVolume(i));
+        }
+        return this;
+    }
+
+    /**
+     * Feed one candle
+     * @param time Candle open time, Unix seconds
+     * @return False if the candle is older than the last one fed
+     */
+    public synchronized boolean update(long time, double open, double high, double low, double close, double volume) {
+        if (time < this.time) return false;
+        if (time > this.time && this.time >= 0) commit();
+        this.time = time;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        return true;
+    }
+
+    /**
+     * Revise the forming candle from a latest price, keeping its open
+     * @param price Latest price
+     */
+    public synchronized void updatePrice(double price) {
+        if (time < 0 || Double.isNaN(price)) return;
+        close = price;
+        if (price > high) high = price;
+        if (price < low) low = price;
+    }
+
+    /**
+     * Fold the forming candle into the running state
+     */
+    private void commit() {
+        double c = close;
+        for (int i = 0; i < MA_PERIODS.length; i++) {
+            sma[i].commit(c);
+            ema[i].commit(c);
+        }
+        if (closed > 0) {
+            double change = c - prevClose;
+            gain.commit(Math.max(change, 0));
+            loss.commit(Math.max(-change, 0));
+        }
+        macdFast.commit(c);
+        macdSlow.commit(c);
+        double macd = macdFast.value - macdSlow.value;
+        if (!Double.isNaN(macd)) macdSignal.commit(macd);
+        double k = stochK();
+        if (!Double.isNaN(k)) stochD.commit(k);
+        highest.commit(high);
+        lowest.commit(low);
+        atr.commit(trueRange());
+
+        prevOpen = open;
+        prevHigh = high;
+        prevLow = low;
+        prevClose = c;
+        closed++;
+    }
+
+    // ==================== Values ====================
+
+    /** Open time of the forming candle, or -1 before the first update */
+    public synchronized long getTime() { return time; }
+
+    /** Number of candles fed */
+    public synchronized int size() { return time >= 0 ? closed + 1 : 0; }
+
+    /**
+     * Simple moving average of closes
+     * @param period One of MA_PERIODS
+     */
+    public synchronized double getSma(int period) { return sma[maIndex(period)].peek(close); }
+
+    /**
+     * Exponential moving average of closes
+     * @param period One of MA_PERIODS
+     */
+    public synchronized double getEma(int period) { return ema[maIndex(period)].peek(close); }
+
+    /** RSI(14), Wilder smoothing */
+    public synchronized double getRsi() {
+        if (closed == 0) return Double.NaN;
+        double change = close - prevClose;
+        double g = gain.peek(Math.max(change, 0));
+        double l = loss.peek(Math.max(-change, 0));
+        if (Double.isNaN(g) || Double.isNaN(l)) return Double.NaN;
+        return l == 0 ? (g == 0 ? 50 : 100) : 100 - 100 / (1 + g / l);
+    }
+
+    /** MACD(12, 26) line */
+    public synchronized double getMacd() {
+        return macdFast.peek(close) - macdSlow.peek(close);
+    }
+
+    /** MACD signal line, EMA(9) of the MACD line */
+    public synchronized double getMacdSignal() {
+        double macd = getMacd();
+        return Double.isNaN(macd) ? Double.NaN : macdSignal.peek(macd);
+    }
+
+    /** Stochastic %K(9) */
+    public synchronized double getStochK() { return stochK(); }
+
+    /** Stochastic %D, SMA(6) of %K */
+    public synchronized double getStochD() {
+        double k = stochK();
+        return Double.isNaN(k) ? Double.NaN : stochD.peek(k);
+    }
+
+    /** ATR(14), Wilder smoothing */
+    public synchronized double getAtr() {
+        return time >= 0 ? atr.peek(trueRange()) : Double.NaN;
+    }
+
+    private double stochK() {
+        if (time < 0) return Double.NaN;
+        double hh = highest.peek(high);
+        double ll = lowest.peek(low);
+        if (Double.isNaN(hh) || Double.isNaN(ll)) return Double.NaN;
+        return hh == ll ? 50 : 100 * (close - ll) / (hh - ll);
+    }
+
+    private double trueRange() {
+        if (closed == 0) return high - low;
+        return Math.max(high - low, Math.max(Math.abs(high - prevClose), Math.abs(low - prevClose)));
+    }
+
+    private static int maIndex(int period) {
+        for (int i = 0; i < MA_PERIODS.length; i++) {
+            if (MA_PERIODS[i] == period) return i;
+        }
+        throw new IllegalArgumentException("Unsupported moving average period: " + period);
+    }
+
+    // ==================== Server-Shaped Results ====================
+
+    /**
+     * Moving averages in the getMovingAverages() response layout
+     * @return {"EMA": {"EMA5": {"v", "s"}, ...}, "SMA": {...}, "summary": signal}
+     */
+    public synchronized Map<String, Object> getMovingAverages() {
+        Map<String, Object> emas = new LinkedHashMap<>();
+        Map<String, Object> smas = new LinkedHashMap<>();
+        int score = 0;
+        for (int period : MA_PERIODS) {
+            double e = getEma(period);
+            double s = getSma(period);
+            String es = versus(close, e);
+            String ss = versus(close, s);
+            score += weight(es) + weight(ss);
+            emas.put("EMA" + period, signal(e, es));
+            smas.put("SMA" + period, signal(s, ss));
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("EMA", emas);
+        out.put("SMA", smas);
+        out.put("summary", score > 0 ? BUY : score < 0 ? SELL : NEUTRAL);
+        return out;
+    }
+
+    /**
+     * Oscillators in the getIndicators() response layout
+     * @return {"RSI14": {"v", "s"}, "STOCH9_6": {...}, "MACD12_26": {...}, "ATR14": {...}, "summary": signal}
+     */
+    public synchronized Map<String, Object> getIndicators() {
+        double rsi = getRsi();
+        double k = getStochK();
+        double macd = getMacd();
+        double signal = getMacdSignal();
+
+        String rsiSignal = Double.isNaN(rsi) ? NEUTRAL : rsi < 30 ? BUY : rsi > 70 ? SELL : NEUTRAL;
+        String stochSignal = Double.isNaN(k) ? NEUTRAL : k < 20 ? BUY : k > 80 ? SELL : NEUTRAL;
+        String macdSignalText = versus(macd, signal);
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("RSI" + RSI_PERIOD, signal(rsi, rsiSignal));
+        Map<String, Object> stoch = signal(k, stochSignal);
+        stoch.put("d", getStochD());
+        out.put("STOCH" + STOCH_K + "_" + STOCH_D, stoch);
+        Map<String, Object> m = signal(macd, macdSignalText);
+        m.put("signal", signal);
+        m.put("histogram", macd - signal);
+        out.put("MACD" + MACD_FAST + "_" + MACD_SLOW, m);
+        out.put("ATR" + ATR_PERIOD, signal(getAtr(), NEUTRAL));
+        int score = weight(rsiSignal) + weight(stochSignal) + weight(macdSignalText);
+        out.put("summary", score > 0 ? BUY : score < 0 ? SELL : NEUTRAL);
+        return out;
+    }
+
+    /**
+     * Pivot points in the getPivotPoints() response layout, from the previous candle
+     * @return {"classic": {"pp", "R1".."R3", "S1".."S3"}, "fibonacci": {...}, "camarilla": {.. "R4", "S4"},
+     *         "woodie": {...}, "demark": {"pp", "R1", "S1"}}
+     */
+    public synchronized Map<String, Object> getPivotPoints() {
+        double h = prevHigh, l = prevLow, c = prevClose, o = prevOpen;
+        double range = h - l;
+        double p = (h + l + c) / 3;
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("classic", levels(p, 2 * p - l, p + range, h + 2 * (p - l), 2 * p - h, p - range, l - 2 * (h - p)));
+        out.put("fibonacci", levels(p, p + 0.382 * range, p + 0.618 * range, p + range,
+                p - 0.382 * range, p - 0.618 * range, p - range));
+        Map<String, Object> camarilla = levels(p, c + range * 1.1 / 12, c + range * 1.1 / 6, c + range * 1.1 / 4,
+                c - range * 1.1 / 12, c - range * 1.1 / 6, c - range * 1.1 / 4);
+        camarilla.put("R4", c + range * 1.1 / 2);
+        camarilla.put("S4", c - range * 1.1 / 2);
+        out.put("camarilla", camarilla);
+        double w = (h + l + 2 * c) / 4;
+        out.put("woodie", levels(w, 2 * w - l, w + range, h + 2 * (w - l), 2 * w - h, w - range, l - 2 * (h - w)));
+        double x = c < o ? h + 2 * l + c : c > o ? 2 * h + l + c : h + l + 2 * c;
+        Map<String, Object> demark = new LinkedHashMap<>();
+        demark.put("pp", x / 4);
+        demark.put("R1", x / 2 - l);
+        demark.put("S1", x / 2 - h);
+        out.put("demark", demark);
+        return out;
+    }
+
+    private static Map<String, Object> levels(double pp, double r1, double r2, double r3, double s1, double s2, double s3) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("pp", pp);
+        out.put("R1", r1);
+        out.put("R2", r2);
+        out.put("R3", r3);
+        out.put("S1", s1);
+        out.put("S2", s2);
+        out.put("S3", s3);
+        return out;
+    }
+
+    private static Map<String, Object> signal(double value, String signal) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("v", value);
+        out.put("s", signal);
+        return out;
+    }
+
+    private static String versus(double value, double reference) {
+        if (Double.isNaN(value) || Double.isNaN(reference) || value == reference) return NEUTRAL;
+        return value > reference ? BUY : SELL;
+    }
+
+    private static int weight(String signal) {
+        return BUY.equals(signal) ? 1 : SELL.equals(signal) ? -1 : 0;
+    }
+
+    // ==================== Running State ====================
+
+    /**
+     * Simple moving average over a ring of the last closed values
+     */
+    private static final class Sma {
+        final double[] ring;
+        double sum;
+        int count;
+
+        Sma(int period) {
+            ring = new double[period];
+        }
+
+        /** Average including a forming value */
+        double peek(double x) {
+            int n = ring.length;
+            if (count + 1 < n) return Double.NaN;
+            return (sum + x - (count >= n ? ring[count % n] : 0)) / n;
+        }
+
+        void commit(double x) {
+            int n = ring.length;
+            int slot = count % n;
+            if (count >= n) sum -= ring[slot];
+            ring[slot] = x;
+            sum += x;
+            count++;
+            // Re-add the window now and then so rounding does not drift
+            if (slot == n - 1 && count % (n * 1024) == 0) {
+                sum = 0;
+                for (double v : ring) sum += v;
+            }
+        }
+    }
+
+    /**
+     * Exponential average seeded with the simple average of its first values
+     */
+    private static final class Ema {
+        final int period;
+        final double alpha;
+        double seed;
+        double value = Double.NaN;
+        int count;
+
+        Ema(int period) {
+            this(period, 2.0 / (period + 1));
+        }
+
+        private Ema(int period, double alpha) {
+            this.period = period;
+            this.alpha = alpha;
+        }
+
+        /** Wilder smoothing (RSI, ATR) */
+        static Ema wilder(int period) {
+            return new Ema(period, 1.0 / period);
+        }
+
+        /** Average including a forming value */
+        double peek(double x) {
+            if (count + 1 < period) return Double.NaN;
+            if (count + 1 == period) return (seed + x) / period;
+            return value + alpha * (x - value);
+        }
+
+        void commit(double x) {
+            value = peek(x);
+            if (count + 1 < period) seed += x;
+            count++;
+        }
+    }
+
+    /**
+     * Highest or lowest of the last values, as a monotonic queue of closed values
+     */
+    private static final class Window {
+        final int period;
+        final boolean max;
+        final double[] values;
+        final int[] indexes;
+        int head, size, count;
+
+        Window(int period, boolean max) {
+            this.period = period;
+            this.max = max;
+            this.values = new double[period + 1];
+            this.indexes = new int[period + 1];
+        }
+
+        /** Extreme of the last period-1 closed values and a forming value */
+        double peek(double x) {
+            if (count + 1 < period) return Double.NaN;
+            if (size == 0) return x;
+            double front = values[head];
+            return max ? Math.max(front, x) : Math.min(front, x);
+        }
+
+        void commit(double x) {
+            int cap = values.length;
+            // Drop dominated values from the back
+            while (size > 0) {
+                int back = (head + size - 1) % cap;
+                if (max ? values[back] > x : values[back] < x) break;
+                size--;
+            }
+            int slot = (head + size) % cap;
+            values[slot] = x;
+            indexes[slot] = count;
+            size++;
+            count++;
+            // Keep the last period-1 closed values
+            while (size > 0 && indexes[head] <= count - period) {
+                head = (head + 1) % cap;
+                size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * FCS API - Latest Price Batcher
+ *
+ * Collects single-symbol latest-price requests for a short window and sends
+ * them as one comma-separated request, then hands each caller its own quote.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching front end for a module's "latest" endpoint
+ *
+ * A batch is sent when the window elapses or when it reaches the maximum
+ * number of symbols, whichever comes first. Requests with different periods
+ * are batched separately.
+ */
+public class FcsLatestBatcher {
+
+    private final FcsApi api;
+    private final String endpoint;
+    private final long windowMillis;
+    private final int maxSymbols;
+
+    /** Open batches by period */
+    private final Map<String, Batch> open = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param api FcsApi instance
+     * @param endpoint Latest endpoint, e.g. "forex/latest"
+     * @param windowMillis Max time a request waits for its batch
+     * @param maxSymbols Max symbols per batched request
+     */
+    public FcsLatestBatcher(FcsApi api, String endpoint, long windowMillis, int maxSymbols) {
+        if (maxSymbols < 1) throw new IllegalArgumentException("maxSymbols must be positive");
+        this.api = api;
+        this.endpoint = endpoint;
+        this.windowMillis = Math.max(windowMillis, 0);
+        this.maxSymbols = maxSymbols;
+    }
+
+    /**
+     * Get latest price of one symbol through the batch
+     * @param symbol Symbol, e.g. EURUSD or FX:EURUSD
+     * @return Future with the symbol's quote item, or null if the request failed or the symbol was not returned
+     */
+    public CompletableFuture<Map<String, Object>> get(String symbol) {
+        return get(symbol, "1D");
+    }
+
+    /**
+     * Get latest price of one symbol through the batch
+     * @param symbol Symbol, e.g. EURUSD or FX:EURUSD
+     * @param period Time period: 1m,5m,15m,30m,1h,4h,1D,1W,1M
+     * @return Future with the symbol's quote item, or null if the request failed or the symbol was not returned
+     * @throws IllegalArgumentException If symbol contains a comma
+     */
+    public CompletableFuture<Map<String, Object>> get(String symbol, String period) {
+        // The batch joins symbols with commas, a comma here would split into other symbols
+        if (symbol.indexOf(',') >= 0) throw new IllegalArgumentException("One symbol per request, got: " + symbol);
+        String key = period != null ? period : "1D";
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        Batch full = null;
+
+        synchronized (open) {
+            Batch batch = open.get(key);
+            if (batch == null) {
+                batch = new Batch(key);
+                open.put(key, batch);
+                Batch scheduled = batch;
+                batch.timer = api.getConfig().getScheduler().schedule(() -> flush(scheduled), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            batch.add(symbol, future);
+            if (batch.waiters.size() >= maxSymbols) {
+                open.remove(key);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            full.timer.cancel(false);
+            send(full);
+        }
+        return future;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (open) {
+            if (open.get(batch.period) != batch) return;
+            open.remove(batch.period);
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("symbol", String.join(",", batch.waiters.keySet()));
+        params.put("period", batch.period);
+
+        CompletableFuture<FcsResponse> request;
+        try {
+            request = api.executeAsync(endpoint, params);
+        } catch (RuntimeException e) {
+            // E.g. a saturated or shut down executor, the request was never sent
+            complete(batch, null);
+            return;
+        }
+        request.whenComplete((response, error) -> complete(batch, response));
+    }
+
+    private static void complete(Batch batch, FcsResponse response) {
+        Map<String, Map<String, Object>> quotes = response != null && response.isSuccess()
+                ? quotesBySymbol(response.getResponse()) : Collections.emptyMap();
+        for (Map.Entry<String, List<CompletableFuture<Map<String, Object>>>> e : batch.waiters.entrySet()) {
+            Map<String, Object> quote = findQuote(quotes, e.getKey());
+            for (CompletableFuture<Map<String, Object>> f : e.getValue()) f.complete(quote);
+        }
+    }
+
+    // ==================== Response Splitting ====================
+
+    /**
+     * Index quote items by ticker ("FX:EURUSD") and by bare symbol ("EURUSD")
+     * The first item wins when a bare symbol is listed on several exchanges.
+     * @param response "response" field of a latest-price response
+     * @return Quotes by upper-case ticker and symbol
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Map<String, Object>> quotesBySymbol(Object response) {
+        Map<String, Map<String, Object>> quotes = new HashMap<>();
+        Iterable<?> items;
+        if (response instanceof List) items = (List<?>) response;
+        else if (response instanceof Map) items = ((Map<?, ?>) response).values();
+        else return quotes;
+
+        for (Object item : items) {
+            if (!(item instanceof Map)) continue;
+            Map<String, Object> quote = (Map<String, Object>) item;
+            String ticker = tickerOf(quote);
+            if (ticker == null) continue;
+            ticker = ticker.toUpperCase();
+            quotes.putIfAbsent(ticker, quote);
+            int colon = ticker.indexOf(':');
+            if (colon >= 0) quotes.putIfAbsent(ticker.substring(colon + 1), quote);
+        }
+        return quotes;
+    }
+
+    /**
+     * Quote for a requested symbol, matching with or without exchange prefix
+     */
+    static Map<String, Object> findQuote(Map<String, Map<String, Object>> quotes, String symbol) {
+        String key = symbol.trim().toUpperCase();
+        Map<String, Object> quote = quotes.get(key);
+        if (quote == null && key.indexOf(':') >= 0) quote = quotes.get(key.substring(key.indexOf(':') + 1));
+        return quote;
+    }
+
+    /**
+     * Ticker of a quote item ("ticker", falling back to "symbol")
+     */
+    static String tickerOf(Map<String, Object> quote) {
+        Object ticker = quote.get("ticker");
+        if (ticker == null) ticker = quote.get("symbol");
+        return ticker != null ? ticker.toString() : null;
+    }
+
+    private static final class Batch {
+        final String period;
+        final Map<String, List<CompletableFuture<Map<String, Object>>>> waiters = new LinkedHashMap<>();
+        ScheduledFuture<?> timer;
+
+        Batch(String period) {
+            this.period = period;
+        }
+
+        void add(String symbol, CompletableFuture<Map<String, Object>> future) {
+            waiters.computeIfAbsent(symbol.trim(), s -> new ArrayList<>()).add(future);
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/**
+ * FCS API - Metrics
+ *
+ * Per-endpoint request metrics: latency histograms, connect / first byte /
+ * parse times, bytes on the wire, error classes and cache hits, exposed
+ * to listeners and JMX.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * Request metrics collector
+ *
+ * Enable by setting FcsConfig.setMetrics(); while it is null the client only
+ * pays one volatile read per request. Every request sent over the transport
+ * produces a Sample that updates the endpoint's counters and histograms and
+ * is passed to listeners. Cache hits and coalesced calls are counted too.
+ *
+ * Histograms are log-linear (16 buckets per power of two, within ~6%) over
+ * lock-free counters, so recording never blocks and percentiles are read
+ * without stopping writers.
+ *
+ * Usage:
+ *   FcsMetrics metrics = new FcsMetrics();
+ *   config.setMetrics(metrics);
+ *   metrics.registerMBeans("default");          // com.fcsapi:type=FcsMetrics,...
+ *   metrics.addListener(s -&gt; log(s));           // per-request samples
+ *   double p99 = metrics.get("forex/latest").getLatency().getPercentile(0.99) / 1e6;
+ */
+public class FcsMetrics {
+
+    /**
+     * Failure class of a request
+     */
+    public enum ErrorClass {
+        /** Monthly quota of the rate limiter reached */
+        QUOTA,
+        /** Interrupted while waiting */
+        INTERRUPTED,
+        /** Could not connect (refused, unknown host, no route, pool exhausted) */
+        CONNECT,
+        /** Connect or read timeout */
+        TIMEOUT,
+        /** HTTP 4xx */
+        HTTP_4XX,
+        /** HTTP 5xx */
+        HTTP_5XX,
+        /** Malformed response body */
+        PARSE,
+        /** Response with status false */
+        API,
+        /** Anything else */
+        OTHER
+    }
+
+    /**
+     * Receives request samples, called on the requesting thread
+     * An exception thrown here goes to that thread's uncaught exception
+     * handler; the request itself still completes.
+     */
+    public interface Listener {
+        void onRequest(Sample sample);
+
+        /** A request answered from the response cache */
+        default void onCacheHit(String endpoint) {
+        }
+    }
+
+    /**
+     * Timings and sizes of one request sent over the transport
+     */
+    public static final class Sample {
+        final String endpoint;
+        ErrorClass error;
+        int status;
+        long totalNanos, waitNanos, connectNanos = -1, ttfbNanos = -1, parseNanos = -1;
+        long bytesSent, bytesReceived;
+
+        Sample(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getEndpoint() { return endpoint; }
+        /** Failure class, null on success */
+        public ErrorClass getError() { return error; }
+        /** HTTP status, 0 if no response was received */
+        public int getStatus() { return status; }
+        /** Whole request, including rate limiter wait */
+        public long getTotalNanos() { return totalNanos; }
+        /** Time waiting for the rate limiter */
+        public long getWaitNanos() { return waitNanos; }
+        /** Time to open the connection, -1 if unknown or not reached */
+        public long getConnectNanos() { return connectNanos; }
+        /** Time from sending until the response headers arrived, -1 if not reached */
+        public long getTtfbNanos() { return ttfbNanos; }
+        /** Time reading and decoding the body, -1 if not reached */
+        public long getParseNanos() { return parseNanos; }
+        public long getBytesSent() { return bytesSent; }
+        public long getBytesReceived() { return bytesReceived; }
+
+        /** Count bytes read from a response body */
+        InputStream count(InputStream in) {
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) bytesReceived++;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buf, int off, int len) throws IOException {
+                    int n = super.read(buf, off, len);
+                    if (n > 0) bytesReceived += n;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return endpoint + "[" + (error != null ? error : "OK") + ", status=" + status + ", total=" + totalNanos / 1000
+                    + "us, wait=" + waitNanos / 1000 + "us, connect=" + connectNanos / 1000 + "us, ttfb=" + ttfbNanos / 1000
+                    + "us, parse=" + parseNanos / 1000 + "us, sent=" + bytesSent + ", received=" + bytesReceived + "]";
+        }
+    }
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile String mbeanName;
+
+    // ==================== Listeners ====================
+
+    public void addListener(Listener listener) { listeners.add(listener); }
+    public void removeListener(Listener listener) { listeners.remove(listener); }
+
+    // ==================== Recording ====================
+
+    /**
+     * Record a finished request
+     */
+    void record(Sample sample, FcsResponse response) {
+        if (sample.error == null && !response.isSuccess()) sample.error = ErrorClass.API;
+        Endpoint e = endpoint(sample.endpoint);
+        e.requests.increment();
+        if (sample.error != null) e.errors.incrementAndGet(sample.error.ordinal());
+        e.bytesSent.add(sample.bytesSent);
+        e.bytesReceived.add(sample.bytesReceived);
+        e.latency.record(sample.totalNanos);
+        if (sample.connectNanos >= 0) e.connect.record(sample.connectNanos);
+        if (sample.ttfbNanos >= 0) e.ttfb.record(sample.ttfbNanos);
+        if (sample.parseNanos >= 0) e.parse.record(sample.parseNanos);
+        for (Listener l : listeners) {
+            try {
+                l.onRequest(sample);
+            } catch (RuntimeException failure) {
+                // Don't fail the request, but don't hide the listener bug either
+                report(failure);
+            }
+        }
+    }
+
+    void recordCacheHit(String endpoint) {
+        endpoint(endpoint).cacheHits.increment();
+        for (Listener l : listeners) {
+            try {
+                l.onCacheHit(endpoint);
+            } catch (RuntimeException failure) {
+                report(failure);
+            }
+        }
+    }
+
+    void recordCoalesced(String endpoint) {
+        endpoint(endpoint).coalesced.increment();
+    }
+
+    /**
+     * Failure class of an exception thrown while sending
+     */
+    static ErrorClass classify(Throwable e) {
+        if (e instanceof SocketTimeoutException) return ErrorClass.TIMEOUT;
+        if (e instanceof ConnectException || e instanceof UnknownHostException || e instanceof NoRouteToHostException) return ErrorClass.CONNECT;
+        if (e instanceof IOException && "Connection pool exhausted".equals(e.getMessage())) return ErrorClass.CONNECT;
+        if (e instanceof JsonParseException || e instanceof MalformedJsonException || e instanceof IllegalStateException) return ErrorClass.PARSE;
+        return ErrorClass.OTHER;
+    }
+
+    /**
+     * Failure class of an HTTP error status
+     */
+    static ErrorClass classify(int status) {
+        return status >= 500 ? ErrorClass.HTTP_5XX : ErrorClass.HTTP_4XX;
+    }
+
+    private Endpoint endpoint(String name) {
+        Endpoint e = endpoints.get(name);
+        if (e != null) return e;
+        Endpoint created = new Endpoint(name);
+        e = endpoints.putIfAbsent(name, created);
+        if (e != null) return e;
+        String domain = mbeanName;
+        if (domain != null) register(created, domain);
+        return created;
+    }
+
+    /**
+     * Hand a listener exception to the thread's uncaught exception handler
+     * The request continues; by default the handler prints the stack trace.
+     */
+    private static void report(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        try {
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        } catch (RuntimeException ignored) {
+            // Nothing left to report a failing handler to
+        }
+    }
+
+    // ==================== Reading ====================
+
+    /**
+     * Metrics of one endpoint
+     * @param endpoint Endpoint path, e.g. "forex/latest"
+     * @return Metrics, or null if no request was recorded
+     */
+    public Endpoint get(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /** Metrics of all endpoints seen so far */
+    public Collection<Endpoint> getEndpoints() {
+        return Collections.unmodifiableCollection(new ArrayList<>(endpoints.values()));
+    }
+
+    /**
+     * Clear all counters and histograms
+     * Not atomic with respect to concurrent requests.
+     */
+    public void reset() {
+        for (Endpoint e : endpoints.values()) e.reset();
+    }
+
+    // ==================== JMX ====================
+
+    /**
+     * Register one MXBean per endpoint with the platform MBean server,
+     * as com.fcsapi:type=FcsMetrics,name=&lt;name&gt;,endpoint="&lt;endpoint&gt;"
+     * Endpoints seen later are registered as they appear.
+     * @param name Client name, distinguishes several clients in one JVM
+     */
+    public synchronized void registerMBeans(String name) {
+        unregisterMBeans();
+        mbeanName = name;
+        for (Endpoint e : endpoints.values()) register(e, name);
+    }
+
+    /**
+     * Remove the MXBeans registered by registerMBeans()
+     */
+    public synchronized void unregisterMBeans() {
+        String name = mbeanName;
+        mbeanName = null;
+        if (name == null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Endpoint e : endpoints.values()) {
+            try {
+                ObjectName on = objectName(name, e.name);
+                if (server.isRegistered(on)) server.unregisterMBean(on);
+            } catch (Exception ignored) {
+                // Already gone
+            }
+        }
+    }
+
+    private static void register(Endpoint e, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName on = objectName(name, e.name);
+            if (!server.isRegistered(on)) server.registerMBean(e, on);
+        } catch (Exception ignored) {
+            // JMX unavailable or name taken, metrics stay readable through get()
+        }
+    }
+
+    private static ObjectName objectName(String name, String endpoint) throws Exception {
+        return new ObjectName("com.fcsapi:type=FcsMetrics,name=" + ObjectName.quote(name) + ",endpoint=" + ObjectName.quote(endpoint));
+    }
+
+    /**
+     * JMX view of one endpoint, times in milliseconds
+     */
+    public interface EndpointMXBean {
+        long getRequests();
+        long getErrors();
+        Map<String, Long> getErrorsByClass();
+        long getCacheHits();
+        long getCoalesced();
+        long getBytesSent();
+        long getBytesReceived();
+        double getLatencyMeanMillis();
+        double getLatencyP50Millis();
+        double getLatencyP99Millis();
+        double getLatencyP999Millis();
+        double getLatencyMaxMillis();
+        double getConnectP50Millis();
+        double getConnectP99Millis();
+        double getTtfbP50Millis();
+        double getTtfbP99Millis();
+        double getParseP50Millis();
+        double getParseP99Millis();
+    }
+
+    /**
+     * Counters and histograms of one endpoint
+     */
+    public static final class Endpoint implements EndpointMXBean {
+        final String name;
+        final LongAdder requests = new LongAdder();
+        final AtomicLongArray errors = new AtomicLongArray(ErrorClass.values().length);
+        final LongAdder cacheHits = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder bytesSent = new LongAdder();
+        final LongAdder bytesReceived = new LongAdder();
+        final Histogram latency = new Histogram();
+        final Histogram connect = new Histogram();
+        final Histogram ttfb = new Histogram();
+        final Histogram parse = new Histogram();
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+
+        /** Requests sent over the transport */
+        @Override public long getRequests() { return requests.sum(); }
+
+        @Override
+        public long getErrors() {
+            long total = 0;
+            for (int i = 0; i < errors.length(); i++) total += errors.get(i);
+            return total;
+        }
+
+        public long getErrors(ErrorClass error) { return errors.get(error.ordinal()); }
+
+        @Override
+        public Map<String, Long> getErrorsByClass() {
+            Map<String, Long> out = new LinkedHashMap<>();
+            for (ErrorClass c : ErrorClass.values()) out.put(c.name(), errors.get(c.ordinal()));
+            return out;
+        }
+
+        /** Requests answered from the response cache */
+        @Override public long getCacheHits() { return cacheHits.sum(); }
+
+        /** Requests that shared another caller's network call */
+        @Override public long getCoalesced() { return coalesced.sum(); }
+
+        @Override public long getBytesSent() { return bytesSent.sum(); }
+        @Override public long getBytesReceived() { return bytesReceived.sum(); }
+
+        /** Whole request time, nanoseconds */
+        public Histogram getLatency() { return latency; }
+        /** Connection open time, nanoseconds */
+        public Histogram getConnect() { return connect; }
+        /** Send to response headers, nanoseconds */
+        public Histogram getTtfb() { return ttfb; }
+        /** Body read and decode time, nanoseconds */
+        public Histogram getParse() { return parse; }
+
+        @Override public double getLatencyMeanMillis() { return latency.getMean() / 1e6; }
+        @Override public double getLatencyP50Millis() { return latency.getPercentile(0.5) / 1e6; }
+        @Override public double getLatencyP99Millis() { return latency.getPercentile(0.99) / 1e6; }
+        @Override public double getLatencyP999Millis() { return latency.getPercentile(0.999) / 1e6; }
+        @Override public double getLatencyMaxMillis() { return latency.getMax() / 1e6; }
+        @Override public double getConnectP50Millis() { return connect.getPercentile(0.5) / 1e6; }
+        @Override public double getConnectP99Millis() { return connect.getPercentile(0.99) / 1e6; }
+        @Override public double getTtfbP50Millis() { return ttfb.getPercentile(0.5) / 1e6; }
+        @Override public double getTtfbP99Millis() { return ttfb.getPercentile(0.99) / 1e6; }
+        @Override public double getParseP50Millis() { return parse.getPercentile(0.5) / 1e6; }
+        @Override public double getParseP99Millis() { return parse.getPercentile(0.99) / 1e6; }
+
+        void reset() {
+            requests.reset();
+            for (int i = 0; i < errors.length(); i++) errors.set(i, 0);
+            cacheHits.reset();
+            coalesced.reset();
+            bytesSent.reset();
+            bytesReceived.reset();
+            latency.reset();
+            connect.reset();
+            ttfb.reset();
+            parse.reset();
+        }
+
+        @Override
+        public String toString() {
+            return name + "[requests=" + getRequests() + ", errors=" + getErrors() + ", cacheHits=" + getCacheHits()
+                    + ", p50=" + getLatencyP50Millis() + "ms, p99=" + getLatencyP99Millis() + "ms, p999=" + getLatencyP999Millis() + "ms]";
+        }
+    }
+
+    /**
+     * Lock-free log-linear histogram of non-negative values
+     */
+    public static final class Histogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB = 1 << SUB_BITS;
+        // Values up to 2^44 (about 4.9 hours in nanoseconds); larger ones land in the last bucket
+        private static final int MAX_EXP = 44;
+        private static final int BUCKETS = (MAX_EXP - SUB_BITS + 2) * SUB;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            if (value < 0) value = 0;
+            counts.incrementAndGet(bucket(value));
+            sum.add(value);
+            long m;
+            while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+                // Retry until the max holds
+            }
+        }
+
+        public long getCount() {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+            return total;
+        }
+
+        public long getMax() { return max.get(); }
+
+        public double getMean() {
+            long n = getCount();
+            return n > 0 ? (double) sum.sum() / n : 0;
+        }
+
+        /**
+         * Value at a quantile
+         * @param quantile 0..1, e.g. 0.999
+         * @return Value (bucket midpoint, capped at the max seen), 0 if empty
+         */
+        public long getPercentile(double quantile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) total += snapshot[i] = counts.get(i);
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) return Math.min((lowerBound(i) + upperBound(i)) / 2, max.get());
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+            sum.reset();
+            max.set(0);
+        }
+
+        static int bucket(long value) {
+            if (value < SUB) return (int) value;
+            int exp = 63 - Long.numberOfLeadingZeros(value);
+            if (exp > MAX_EXP) return BUCKETS - 1;
+            int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB - 1);
+            return (exp - SUB_BITS + 1) * SUB + sub;
+        }
+
+        static long lowerBound(int bucket) {
+            if (bucket < SUB) return bucket;
+            int exp = bucket / SUB + SUB_BITS - 1;
+            return (long) (SUB + bucket % SUB) << (exp - SUB_BITS);
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB) return bucket;
+            int exp = bucket / SUB + SUB_BITS - 1;
+            return lowerBound(bucket) + (1L << (exp - SUB_BITS)) - 1;
+        }
+    }
+}
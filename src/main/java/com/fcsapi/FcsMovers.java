@@ -0,0 +1,185 @@
+/**
+ * FCS API - Local Movers
+ *
+ * Top gainers, losers and most active symbols ranked locally from the
+ * quote book, instead of a getSortedData round trip per query.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Top-k rankings over a quote book
+ *
+ * Each query is one pass over the book's primitive slots keeping the best
+ * k in a small sorted array, so it always reflects the latest quotes with
+ * no index to maintain as they update; a few thousand symbols rank in
+ * microseconds. Exchange comes from the ticker prefix, country and sector
+ * from the symbol registry; both are resolved once per slot and cached
+ * until the registry reloads.
+ *
+ * Usage:
+ *   FcsMovers movers = new FcsMovers(book, fcsapi.getSymbolRegistry());
+ *   List&lt;FcsQuoteBook.Quote&gt; up = movers.getTopGainers(null, 20, "united-states", null);
+ *   List&lt;FcsQuoteBook.Quote&gt; tech = movers.getMostActive("NASDAQ", 10, null, "Technology");
+ */
+public class FcsMovers {
+
+    private static final int CHANGE_PCT = 0;
+    private static final int VOLUME = 1;
+
+    private final FcsQuoteBook book;
+    private final FcsSymbolRegistry registry;
+
+    // Per-slot filter fields, upper-case, resolved for slots [0, resolved)
+    private String[] exchanges = new String[0];
+    private String[] countries = new String[0];
+    private String[] sectors = new String[0];
+    private int resolved;
+    private Object generation;
+    private double[] scratch = new double[0];
+
+    /**
+     * Constructor
+     * @param book Quote book fed with latest prices
+     * @param registry Loaded symbol registry for country and sector filters, or null
+     */
+    public FcsMovers(FcsQuoteBook book, FcsSymbolRegistry registry) {
+        this.book = book;
+        this.registry = registry;
+    }
+
+    // ==================== Rankings ====================
+
+    /**
+     * Highest change percent
+     * @param exchange Exchange filter, e.g. "NASDAQ", or null
+     * @param limit Max results
+     * @param country Country filter as in the symbol list, or null
+     * @param sector Sector filter, or null
+     */
+    public List<FcsQuoteBook.Quote> getTopGainers(String exchange, int limit, String country, String sector) {
+        return top(CHANGE_PCT, true, limit, exchange, country, sector);
+    }
+
+    public List<FcsQuoteBook.Quote> getTopGainers(int limit) {
+        return getTopGainers(null, limit, null, null);
+    }
+
+    /**
+     * Lowest change percent
+     */
+    public List<FcsQuoteBook.Quote> getTopLosers(String exchange, int limit, String country, String sector) {
+        return top(CHANGE_PCT, false, limit, exchange, country, sector);
+    }
+
+    public List<FcsQuoteBook.Quote> getTopLosers(int limit) {
+        return getTopLosers(null, limit, null, null);
+    }
+
+    /**
+     * Highest volume (the server ranks most active by volume too)
+     */
+    public List<FcsQuoteBook.Quote> getMostActive(String exchange, int limit, String country, String sector) {
+        return top(VOLUME, true, limit, exchange, country, sector);
+    }
+
+    public List<FcsQuoteBook.Quote> getMostActive(int limit) {
+        return getMostActive(null, limit, null, null);
+    }
+
+    /**
+     * Highest volume
+     */
+    public List<FcsQuoteBook.Quote> getHighestVolume(String exchange, int limit, String country, String sector) {
+        return top(VOLUME, true, limit, exchange, country, sector);
+    }
+
+    public List<FcsQuoteBook.Quote> getHighestVolume(int limit) {
+        return getHighestVolume(null, limit, null, null);
+    }
+
+    /**
+     * Rank slots by a field, keeping the best limit
+     */
+    private List<FcsQuoteBook.Quote> top(int field, boolean descending, int limit, String exchange, String country, String sector) {
+        if (limit <= 0) return new ArrayList<>();
+        String ex = upper(exchange), co = upper(country), se = upper(sector);
+        // Best first; keys are negated for ascending order so larger is always better
+        double[] keys = new double[limit];
+        int[] slots = new int[limit];
+        int count = 0;
+
+        synchronized (this) {
+            int n = book.size();
+            resolve(n);
+            double[] values = scratch;
+            if (field == CHANGE_PCT) book.changePercents(values, n);
+            else book.volumes(values, n);
+
+            for (int slot = 0; slot < n; slot++) {
+                double v = values[slot];
+                if (Double.isNaN(v)
+                        || ex != null && !ex.equals(exchanges[slot])
+                        || co != null && !co.equals(countries[slot])
+                        || se != null && !se.equals(sectors[slot])) continue;
+                double key = descending ? v : -v;
+                if (count == limit && key <= keys[count - 1]) continue;
+
+                int i = count < limit ? count++ : count - 1;
+                while (i > 0 && keys[i - 1] < key) {
+                    keys[i] = keys[i - 1];
+                    slots[i] = slots[i - 1];
+                    i--;
+                }
+                keys[i] = key;
+                slots[i] = slot;
+            }
+        }
+
+        List<FcsQuoteBook.Quote> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(book.read(slots[i], new FcsQuoteBook.Quote()));
+        return out;
+    }
+
+    // ==================== Filter Fields ====================
+
+    /**
+     * Resolve filter fields of new slots, or of all slots after a registry reload
+     */
+    private void resolve(int n) {
+        Object current = registry != null ? registry.generation() : null;
+        if (current != generation) {
+            generation = current;
+            resolved = 0;
+        }
+        if (resolved >= n) return;
+        if (exchanges.length < n) {
+            int cap = Math.max(n, exchanges.length * 2);
+            exchanges = Arrays.copyOf(exchanges, cap);
+            countries = Arrays.copyOf(countries, cap);
+            sectors = Arrays.copyOf(sectors, cap);
+            scratch = new double[cap];
+        }
+        for (int slot = resolved; slot < n; slot++) {
+            String ticker = book.tickerAt(slot);
+            FcsSymbolRegistry.Entry entry = registry != null ? registry.get(ticker) : null;
+            int colon = ticker.indexOf(':');
+            String exchange = colon > 0 ? ticker.substring(0, colon) : entry != null ? entry.getExchange() : null;
+            exchanges[slot] = upper(exchange);
+            countries[slot] = entry != null ? upper(entry.getCountry()) : null;
+            sectors[slot] = entry != null ? upper(entry.getSector()) : null;
+        }
+        resolved = n;
+    }
+
+    private static String upper(String value) {
+        return value == null || value.isEmpty() ? null : value.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * FCS API - Multi URL Request Builder
+ *
+ * Queues calls from any module and sends them as one multi_url round trip.
+ * Each sub-response completes its own future.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import com.google.gson.Gson;
+
+/**
+ * Typed multi_url batch
+ *
+ * Usage:
+ *   FcsMultiRequest batch = fcsapi.newMultiRequest();
+ *   CompletableFuture&lt;FcsResponse&gt; eur = batch.add("forex/latest", params);
+ *   CompletableFuture&lt;FcsCandleSeries&gt; aapl = batch.addHistory("stock/history", params);
+ *   batch.send();
+ *
+ * A builder is single-use: send() may be called once.
+ */
+public class FcsMultiRequest {
+
+    private static final Gson GSON = new Gson();
+
+    private final FcsApi api;
+    private final List<Call<?>> calls = new ArrayList<>();
+    private boolean sent;
+
+    FcsMultiRequest(FcsApi api) {
+        this.api = api;
+    }
+
+    /** Number of queued calls */
+    public synchronized int size() {
+        return calls.size();
+    }
+
+    /**
+     * Queue a call
+     * @param endpoint API endpoint, e.g. "forex/latest" or "stock/indicators"
+     * @param parameters Request parameters
+     * @return Future completed with the sub-response when the batch is sent
+     */
+    public CompletableFuture<FcsResponse> add(String endpoint, Map<String, Object> parameters) {
+        return add(endpoint, parameters, Function.identity());
+    }
+
+    /**
+     * Queue a call with a typed result
+     * @param endpoint API endpoint
+     * @param parameters Request parameters
+     * @param mapper Converts the sub-response into the result type
+     * @return Future completed with the mapped sub-response when the batch is sent
+     */
+    public synchronized <T> CompletableFuture<T> add(String endpoint, Map<String, Object> parameters, Function<FcsResponse, T> mapper) {
+        if (sent) throw new IllegalStateException("Multi request already sent");
+        Call<T> call = new Call<>(url(endpoint, parameters), mapper);
+        calls.add(call);
+        return call.future;
+    }
+
+    /**
+     * Queue a history call returning a candle series
+     * @param endpoint History endpoint, e.g. "crypto/history"
+     * @param parameters Request parameters
+     * @return Future with the candle series, or null if the sub-request failed
+     */
+    public CompletableFuture<FcsCandleSeries> addHistory(String endpoint, Map<String, Object> parameters) {
+        return add(endpoint, parameters, res -> res.isSuccess()
+                ? FcsCandleSeries.ADAPTER.fromJsonTree(GSON.toJsonTree(res.getResponse())) : null);
+    }
+
+    /**
+     * Send all queued calls as one multi_url request and complete their futures
+     * @return Response of the combined request
+     */
+    public FcsResponse send() {
+        List<Call<?>> batch;
+        synchronized (this) {
+            if (sent) throw new IllegalStateException("Multi request already sent");
+            sent = true;
+            batch = new ArrayList<>(calls);
+        }
+        if (batch.isEmpty()) return FcsResponse.error("No calls queued", 0);
+
+        List<String> urls = new ArrayList<>();
+        for (Call<?> call : batch) urls.add(call.url);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("url", String.join(",", urls));
+        params.put("base", api.getConfig().getBaseUrl());
+
+        // multi_url is available on every module, post to the first call's module
+        String module = batch.get(0).url.substring(0, batch.get(0).url.indexOf('/') + 1);
+        FcsResponse response = api.execute(module + "multi_url", params);
+
+        try {
+            demultiplex(batch, response);
+        } catch (RuntimeException e) {
+            for (Call<?> call : batch) call.future.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    /**
+     * Send asynchronously on the configured executor
+     * @return Future with the combined response
+     */
+    public CompletableFuture<FcsResponse> sendAsync() {
+        return api.supplyAsync(this::send);
+    }
+
+    /**
+     * Route sub-responses to their calls
+     * A list is matched by request order, a map by URL (or by request index for
+     * PHP-style numeric keys). A call without its own entry gets "Missing sub-response".
+     */
+    private static void demultiplex(List<Call<?>> batch, FcsResponse response) {
+        if (!response.isSuccess()) {
+            for (Call<?> call : batch) call.complete(FcsResponse.error(response.getError(), response.getElapsedNanos()));
+            return;
+        }
+
+        Object payload = response.getResponse();
+        for (int i = 0; i < batch.size(); i++) {
+            Call<?> call = batch.get(i);
+            Object sub = null;
+            if (payload instanceof List) {
+                List<?> list = (List<?>) payload;
+                if (i < list.size()) sub = list.get(i);
+            } else if (payload instanceof Map) {
+                Map<?, ?> byUrl = (Map<?, ?>) payload;
+                sub = byUrl.get(call.url);
+                if (sub == null) sub = byUrl.get(String.valueOf(i));
+            }
+            call.complete(subResponse(sub, response.getElapsedNanos()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FcsResponse subResponse(Object sub, long elapsedNanos) {
+        if (sub instanceof Map && ((Map<?, ?>) sub).containsKey("status")) {
+            return FcsResponse.of((Map<String, Object>) sub, elapsedNanos);
+        }
+        if (sub == null) return FcsResponse.error("Missing sub-response", elapsedNanos);
+
+        // Bare payload without envelope
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", true);
+        body.put("code", 200);
+        body.put("msg", "Successfully");
+        body.put("response", sub);
+        return FcsResponse.of(body, elapsedNanos);
+    }
+
+    /**
+     * Relative URL with encoded query, so commas in values cannot split the URL list
+     */
+    private static String url(String endpoint, Map<String, Object> parameters) {
+        StringBuilder url = new StringBuilder(endpoint);
+        if (parameters != null && !parameters.isEmpty()) {
+            char sep = '?';
+            try {
+                for (Map.Entry<String, Object> e : new TreeMap<>(parameters).entrySet()) {
+                    url.append(sep)
+                        .append(URLEncoder.encode(e.getKey(), "UTF-8"))
+                        .append('=')
+                        .append(URLEncoder.encode(String.valueOf(e.getValue()), "UTF-8"));
+                    sep = '&';
+                }
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return url.toString();
+    }
+
+    private static final class Call<T> {
+        final String url;
+        final Function<FcsResponse, T> mapper;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Call(String url, Function<FcsResponse, T> mapper) {
+            this.url = url;
+            this.mapper = mapper;
+        }
+
+        void complete(FcsResponse response) {
+            try {
+                future.complete(mapper.apply(response));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * FCS API - Quote Book
+ *
+ * Shared in-memory table of the latest quote of every tracked symbol, kept
+ * in primitive slots so pricing threads can read quotes without maps,
+ * boxing or locks.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free quote book
+ *
+ * Each symbol gets a slot index on first update. A slot is a run of longs in
+ * an AtomicLongArray (doubles stored as raw bits) guarded by a sequence
+ * number: writers make it odd while they write and even when done, readers
+ * retry if it was odd or moved while they read. Reads never block and never
+ * allocate; writers to the same slot spin against each other only for the
+ * few stores of one update.
+ *
+ * Slots live in fixed-size segments that are never moved, so growing the
+ * book does not copy quotes or disturb readers.
+ *
+ * Feed it by setting FcsConfig.setQuoteBook(): every daily latest-price
+ * response (getLatestPrice, getAllPrices, subscriptions) then updates it.
+ *
+ * Usage:
+ *   int eur = book.indexOf("FX:EURUSD");      // resolve once
+ *   double price = book.getPrice(eur);        // then read by index
+ *   book.read(eur, quote);                    // or a consistent snapshot
+ */
+public class FcsQuoteBook {
+
+    private static final int SEGMENT_BITS = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+
+    // Slot layout: sequence, then fields
+    private static final int SEQ = 0;
+    private static final int PRICE = 1;
+    private static final int CHANGE = 2;
+    private static final int CHANGE_PCT = 3;
+    private static final int OPEN = 4;
+    private static final int HIGH = 5;
+    private static final int LOW = 6;
+    private static final int VOLUME = 7;
+    private static final int TIME = 8;
+    private static final int STRIDE = 9;
+
+    /** Symbol (upper-case ticker or bare symbol) to slot index */
+    private final ConcurrentHashMap<String, Integer> index = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray[] segments = new AtomicLongArray[0];
+    private volatile String[][] tickers = new String[0][];
+    private volatile int size;
+
+    /**
+     * Consistent copy of one slot, reusable to avoid allocation
+     */
+    public static final class Quote {
+        String ticker;
+        double price, change, changePct, open, high, low, volume;
+        long time;
+
+        public String getTicker() { return ticker; }
+        public double getPrice() { return price; }
+        public double getChange() { return change; }
+        public double getChangePercent() { return changePct; }
+        public double getOpen() { return open; }
+        public double getHigh() { return high; }
+        public double getLow() { return low; }
+        public double getVolume() { return volume; }
+        /** Quote time, Unix seconds */
+        public long getTime() { return time; }
+
+        @Override
+        public String toString() {
+            return ticker + "[price=" + price + ", chp=" + changePct + ", h=" + high + ", l=" + low + ", v=" + volume + ", t=" + time + "]";
+        }
+    }
+
+    // ==================== Updates ====================
+
+    /**
+     * Update from the "response" field of a latest-price response
+     * @param response List or map of quote items
+     * @return Number of quotes updated
+     */
+    public int update(Object response) {
+        Iterable<?> items;
+        if (response instanceof List) items = (List<?>) response;
+        else if (response instanceof Map) items = ((Map<?, ?>) response).values();
+        else return 0;
+
+        int updated = 0;
+        for (Object item : items) {
+            if (item instanceof Map && update(null, asQuote(item))) updated++;
+        }
+        return updated;
+    }
+
+    /**
+     * Update from one quote item
+     * Reads the "active" block (o, h, l, c, v, t, ch, chp) or top-level fields.
+     * @param symbol Symbol, or null to use the item's ticker
+     * @param quote Quote item
+     * @return True if the item had a ticker and a price
+     */
+    public boolean update(String symbol, Map<String, Object> quote) {
+        String ticker = symbol != null ? symbol : FcsLatestBatcher.tickerOf(quote);
+        Map<?, ?> fields = fieldsOf(quote);
+        double price = number(fields, "c");
+        if (ticker == null || Double.isNaN(price)) return false;
+        update(ticker, price, number(fields, "ch"), number(fields, "chp"), number(fields, "o"),
+                number(fields, "h"), number(fields, "l"), number(fields, "v"), (long) number(fields, "t"));
+        return true;
+    }
+
+    /**
+     * Update one symbol
+     * @param symbol Ticker, e.g. "FX:EURUSD"
+     * @param time Quote time, Unix seconds
+     * @return Slot index of the symbol
+     */
+    public int update(String symbol, double price, double change, double changePct, double open,
+                      double high, double low, double volume, long time) {
+        int slot = slotOf(symbol);
+        AtomicLongArray seg = segments[slot >>> SEGMENT_BITS];
+        int base = (slot & (SEGMENT_SIZE - 1)) * STRIDE;
+
+        // Take the slot: move the sequence from even to odd
+        long seq;
+        do {
+            seq = seg.get(base + SEQ);
+        } while ((seq & 1) != 0 || !seg.compareAndSet(base + SEQ, seq, seq + 1));
+
+        seg.lazySet(base + PRICE, Double.doubleToRawLongBits(price));
+        seg.lazySet(base + CHANGE, Double.doubleToRawLongBits(change));
+        seg.lazySet(base + CHANGE_PCT, Double.doubleToRawLongBits(changePct));
+        seg.lazySet(base + OPEN, Double.doubleToRawLongBits(open));
+        seg.lazySet(base + HIGH, Double.doubleToRawLongBits(high));
+        seg.lazySet(base + LOW, Double.doubleToRawLongBits(low));
+        seg.lazySet(base + VOLUME, Double.doubleToRawLongBits(volume));
+        seg.lazySet(base + TIME, time);
+        seg.set(base + SEQ, seq + 2);
+        return slot;
+    }
+
+    // ==================== Reads ====================
+
+    /** Number of slots */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Slot index of a symbol, matching with or without exchange prefix
+     * @return Index, or -1 if the symbol has never been updated
+     */
+    public int indexOf(String symbol) {
+        String key = symbol.trim().toUpperCase();
+        Integer slot = index.get(key);
+        if (slot == null && key.indexOf(':') >= 0) slot = index.get(key.substring(key.indexOf(':') + 1));
+        return slot != null ? slot : -1;
+    }
+
+    /** Ticker of a slot */
+    public String tickerAt(int slot) {
+        checkSlot(slot);
+        return tickers[slot >>> SEGMENT_BITS][slot & (SEGMENT_SIZE - 1)];
+    }
+
+    /**
+     * Snapshot of all tracked tickers, in slot order
+     */
+    public List<String> tickers() {
+        int n = size;
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(tickerAt(i));
+        return out;
+    }
+
+    public double getPrice(int slot) { return field(slot, PRICE); }
+    public double getChange(int slot) { return field(slot, CHANGE); }
+    public double getChangePercent(int slot) { return field(slot, CHANGE_PCT); }
+    public double getOpen(int slot) { return field(slot, OPEN); }
+    public double getHigh(int slot) { return field(slot, HIGH); }
+    public double getLow(int slot) { return field(slot, LOW); }
+    public double getVolume(int slot) { return field(slot, VOLUME); }
+
+    /** Quote time of a slot, Unix seconds */
+    public long getTime(int slot) {
+        checkSlot(slot);
+        return segments[slot >>> SEGMENT_BITS].get((slot & (SEGMENT_SIZE - 1)) * STRIDE + TIME);
+    }
+
+    /**
+     * Latest price of a symbol
+     * @return Price, or NaN if not tracked
+     */
+    public double getPrice(String symbol) {
+        int slot = indexOf(symbol);
+        return slot >= 0 ? getPrice(slot) : Double.NaN;
+    }
+
+    /**
+     * Copy a consistent snapshot of a slot
+     * @param slot Slot index
+     * @param into Quote to fill
+     * @return The filled quote
+     */
+    public Quote read(int slot, Quote into) {
+        checkSlot(slot);
+        AtomicLongArray seg = segments[slot >>> SEGMENT_BITS];
+        int base = (slot & (SEGMENT_SIZE - 1)) * STRIDE;
+        long before, after;
+        do {
+            before = seg.get(base + SEQ);
+            into.price = Double.longBitsToDouble(seg.get(base + PRICE));
+            into.change = Double.longBitsToDouble(seg.get(base + CHANGE));
+            into.changePct = Double.longBitsToDouble(seg.get(base + CHANGE_PCT));
+            into.open = Double.longBitsToDouble(seg.get(base + OPEN));
+            into.high = Double.longBitsToDouble(seg.get(base + HIGH));
+            into.low = Double.longBitsToDouble(seg.get(base + LOW));
+            into.volume = Double.longBitsToDouble(seg.get(base + VOLUME));
+            into.time = seg.get(base + TIME);
+            after = seg.get(base + SEQ);
+        } while ((before & 1) != 0 || before != after);
+        into.ticker = tickerAt(slot);
+        return into;
+    }
+
+    /**
+     * Snapshot of a symbol's quote
+     * @return New quote, or null if not tracked
+     */
+    public Quote get(String symbol) {
+        int slot = indexOf(symbol);
+        return slot >= 0 ? read(slot, new Quote()) : null;
+    }
+
+    /**
+     * Copy one field of slots [0, count) into an array, segment by segment
+     */
+    void column(int field, double[] out, int count) {
+        AtomicLongArray[] segs = segments;
+        for (int slot = 0; slot < count; ) {
+            AtomicLongArray seg = segs[slot >>> SEGMENT_BITS];
+            int end = Math.min(count, (slot | (SEGMENT_SIZE - 1)) + 1);
+            for (int i = (slot & (SEGMENT_SIZE - 1)) * STRIDE + field; slot < end; slot++, i += STRIDE) {
+                out[slot] = Double.longBitsToDouble(seg.get(i));
+            }
+        }
+    }
+
+    void changePercents(double[] out, int count) { column(CHANGE_PCT, out, count); }
+
+    void volumes(double[] out, int count) { column(VOLUME, out, count); }
+
+    // ==================== Internals ====================
+
+    private double field(int slot, int field) {
+        checkSlot(slot);
+        return Double.longBitsToDouble(segments[slot >>> SEGMENT_BITS].get((slot & (SEGMENT_SIZE - 1)) * STRIDE + field));
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size) throw new IndexOutOfBoundsException("Slot " + slot + " of " + size);
+    }
+
+    private int slotOf(String symbol) {
+        String key = symbol.trim().toUpperCase();
+        Integer slot = index.get(key);
+        if (slot != null) return slot;
+        synchronized (this) {
+            slot = index.get(key);
+            if (slot != null) return slot;
+            int s = size;
+            if ((s >>> SEGMENT_BITS) == segments.length) grow();
+            tickers[s >>> SEGMENT_BITS][s & (SEGMENT_SIZE - 1)] = key;
+            // Publish the slot before its keys, so indexOf() never returns an unreadable slot
+            size = s + 1;
+            index.put(key, s);
+            int colon = key.indexOf(':');
+            if (colon >= 0) index.putIfAbsent(key.substring(colon + 1), s);
+            return s;
+        }
+    }
+
+    private void grow() {
+        int n = segments.length;
+        AtomicLongArray[] seg = new AtomicLongArray[n + 1];
+        String[][] tick = new String[n + 1][];
+        System.arraycopy(segments, 0, seg, 0, n);
+        System.arraycopy(tickers, 0, tick, 0, n);
+        seg[n] = new AtomicLongArray(SEGMENT_SIZE * STRIDE);
+        long nan = Double.doubleToRawLongBits(Double.NaN);
+        for (int i = 0; i < SEGMENT_SIZE * STRIDE; i++) {
+            if (i % STRIDE != SEQ && i % STRIDE != TIME) seg[n].lazySet(i, nan);
+        }
+        tick[n] = new String[SEGMENT_SIZE];
+        // Publish the segment arrays before size is raised
+        tickers = tick;
+        segments = seg;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asQuote(Object item) {
+        return (Map<String, Object>) item;
+    }
+
+    /**
+     * Live fields of a quote item: its "active" block, or the item itself
+     */
+    static Map<?, ?> fieldsOf(Map<?, ?> quote) {
+        Object active = quote.get("active");
+        return active instanceof Map ? (Map<?, ?>) active : quote;
+    }
+
+    /**
+     * Numeric field of a quote item, NaN if missing or not numeric
+     */
+    static double number(Map<?, ?> fields, String name) {
+        Object v = fields.get(name);
+        if (v instanceof Number) return ((Number) v).doubleValue();
+        if (v instanceof String) {
+            try {
+                return Double.parseDouble((String) v);
+            } catch (NumberFormatException ignored) {
+                // Not numeric
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,476 @@
+/**
+ * FCS API - Off-Heap Quote Store
+ *
+ * Latest quotes for very large symbol universes kept outside the Java heap,
+ * in a direct buffer or a memory-mapped file that other processes on the
+ * same host can read.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-capacity off-heap quote store
+ *
+ * Every symbol gets a fixed-width record: a sequence number, eight quote
+ * fields and the ticker. Records are addressed by symbol id (the record
+ * index), assigned on first update and never reused, so the heap only holds
+ * the symbol-to-id index no matter how many quotes are stored.
+ *
+ * Readers use the same sequence protocol as FcsQuoteBook: an odd or changed
+ * sequence number means a write was in progress and the read is retried.
+ * Writes are serialized by the writing process; a store opened read-only
+ * with open() picks up symbols added by the writer as it looks them up.
+ *
+ * File layout (big-endian): 64-byte header [magic, version, capacity,
+ * count], then capacity records of 104 bytes [seq, price, change, change %,
+ * open, high, low, volume, time, ticker length, ticker bytes]. Tickers are
+ * limited to 31 UTF-8 bytes; longer ones are not stored.
+ *
+ * The sequence protocol needs real memory fences: VarHandle fences on JDK 9+,
+ * sun.misc.Unsafe fences on JDK 8. Without either the store cannot be created.
+ *
+ * Usage:
+ *   // Writer JVM
+ *   FcsQuoteStore store = FcsQuoteStore.create(new File("/dev/shm/quotes"), 200000);
+ *   config.setQuoteStore(store);
+ *   fcsapi.getCrypto().getAllPrices("BINANCE");
+ *
+ *   // Reader JVM
+ *   FcsQuoteStore quotes = FcsQuoteStore.open(new File("/dev/shm/quotes"));
+ *   double btc = quotes.getPrice(quotes.indexOf("BINANCE:BTCUSDT"));
+ */
+public class FcsQuoteStore implements Closeable {
+
+    private static final int MAGIC = 0x46435351; // "FCSQ"
+    private static final int VERSION = 1;
+
+    private static final int HEADER = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_CAPACITY = 8;
+    private static final int H_COUNT = 12;
+
+    private static final int SEQ = 0;
+    private static final int PRICE = 8;
+    private static final int CHANGE = 16;
+    private static final int CHANGE_PCT = 24;
+    private static final int OPEN = 32;
+    private static final int HIGH = 40;
+    private static final int LOW = 48;
+    private static final int VOLUME = 56;
+    private static final int TIME = 64;
+    private static final int TICKER = 72;
+    private static final int TICKER_MAX = 31;
+    private static final int RECORD = 104;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final boolean writable;
+
+    /** Ticker (and bare symbol) to id, filled from the buffer as ids are seen */
+    private final ConcurrentHashMap<String, Integer> index = new ConcurrentHashMap<>();
+    private volatile int indexed;
+
+    /**
+     * Store in a direct buffer, private to this JVM
+     * @param capacity Maximum number of symbols
+     */
+    public FcsQuoteStore(int capacity) {
+        this(ByteBuffer.allocateDirect(bufferSize(capacity)), capacity, true);
+        initHeader();
+    }
+
+    private FcsQuoteStore(ByteBuffer buffer, int capacity, boolean writable) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        Fences.check();
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.writable = writable;
+    }
+
+    /**
+     * Create (or reset) a store file shared with other processes
+     * Put it on a RAM-backed file system such as /dev/shm to avoid disk writes.
+     * The new store is built in a temporary file and renamed over the old one,
+     * so processes that still map the old file keep reading it safely until
+     * they open the file again.
+     * @param file Store file
+     * @param capacity Maximum number of symbols
+     * @return Writable store
+     * @throws IOException if the file cannot be created, mapped or replaced
+     */
+    public static FcsQuoteStore create(File file, int capacity) throws IOException {
+        int length = bufferSize(capacity);
+        File tmp = new File(file.getPath() + ".tmp");
+        // Unlink rather than truncate, in case a mapping of it is still open somewhere
+        Files.deleteIfExists(tmp.toPath());
+        MappedByteBuffer mapped;
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+            raf.setLength(length);
+            mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+        }
+        FcsQuoteStore store = new FcsQuoteStore(mapped, capacity, true);
+        store.initHeader();
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return store;
+    }
+
+    /**
+     * Open a store file written by another process
+     * @param file Store file
+     * @return Read-only store
+     * @throws IOException if the file cannot be mapped or is not a quote store
+     */
+    public static FcsQuoteStore open(File file) throws IOException {
+        MappedByteBuffer mapped;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            mapped = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        if (mapped.capacity() < HEADER || mapped.getInt(H_MAGIC) != MAGIC || mapped.getInt(H_VERSION) != VERSION) {
+            throw new IOException("Not a quote store file: " + file);
+        }
+        int capacity = mapped.getInt(H_CAPACITY);
+        if (mapped.capacity() < HEADER + (long) capacity * RECORD) throw new IOException("Truncated quote store file: " + file);
+        return new FcsQuoteStore(mapped, capacity, false);
+    }
+
+    private static int bufferSize(int capacity) {
+        long length = HEADER + (long) capacity * RECORD;
+        if (capacity < 1 || length > Integer.MAX_VALUE) throw new IllegalArgumentException("capacity out of range: " + capacity);
+        return (int) length;
+    }
+
+    private void initHeader() {
+        buffer.putInt(H_MAGIC, MAGIC);
+        buffer.putInt(H_VERSION, VERSION);
+        buffer.putInt(H_CAPACITY, capacity);
+        buffer.putInt(H_COUNT, 0);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Number of symbols stored */
+    public int size() {
+        return buffer.getInt(H_COUNT);
+    }
+
+    // ==================== Updates ====================
+
+    /**
+     * Update from the "response" field of a latest-price response
+     * @param response List or map of quote items
+     * @return Number of quotes stored
+     */
+    public int update(Object response) {
+        Iterable<?> items;
+        if (response instanceof List) items = (List<?>) response;
+        else if (response instanceof Map) items = ((Map<?, ?>) response).values();
+        else return 0;
+
+        int updated = 0;
+        for (Object item : items) {
+            if (item instanceof Map) {
+                Map<?, ?> quote = (Map<?, ?>) item;
+                Object ticker = quote.get("ticker");
+                if (ticker == null) ticker = quote.get("symbol");
+                if (ticker != null && update(ticker.toString(), quote)) updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Update from one quote item ("active" block or top-level o, h, l, c, v, t, ch, chp)
+     * @return True if stored; false without a price, when the store is full or the ticker is too long
+     */
+    public boolean update(String symbol, Map<?, ?> quote) {
+        Map<?, ?> fields = FcsQuoteBook.fieldsOf(quote);
+        double price = FcsQuoteBook.number(fields, "c");
+        if (Double.isNaN(price)) return false;
+        return update(symbol, price, FcsQuoteBook.number(fields, "ch"), FcsQuoteBook.number(fields, "chp"),
+                FcsQuoteBook.number(fields, "o"), FcsQuoteBook.number(fields, "h"), FcsQuoteBook.number(fields, "l"),
+                FcsQuoteBook.number(fields, "v"), (long) FcsQuoteBook.number(fields, "t")) >= 0;
+    }
+
+    /**
+     * Update one symbol
+     * @param symbol Ticker, e.g. "BINANCE:BTCUSDT"
+     * @param time Quote time, Unix seconds
+     * @return Symbol id, or -1 when the store is full or the ticker is longer than 31 UTF-8 bytes
+     */
+    public synchronized int update(String symbol, double price, double change, double changePct, double open,
+                                   double high, double low, double volume, long time) {
+        if (!writable) throw new IllegalStateException("Quote store is read-only");
+        int id = idOf(symbol);
+        if (id < 0) return -1;
+
+        int base = HEADER + id * RECORD;
+        long seq = buffer.getLong(base + SEQ);
+        buffer.putLong(base + SEQ, seq + 1);
+        Fences.store();
+        buffer.putDouble(base + PRICE, price);
+        buffer.putDouble(base + CHANGE, change);
+        buffer.putDouble(base + CHANGE_PCT, changePct);
+        buffer.putDouble(base + OPEN, open);
+        buffer.putDouble(base + HIGH, high);
+        buffer.putDouble(base + LOW, low);
+        buffer.putDouble(base + VOLUME, volume);
+        buffer.putLong(base + TIME, time);
+        Fences.store();
+        buffer.putLong(base + SEQ, seq + 2);
+        return id;
+    }
+
+    // ==================== Reads ====================
+
+    /**
+     * Symbol id, matching with or without exchange prefix
+     * @return Id, or -1 if the symbol is not stored
+     */
+    public int indexOf(String symbol) {
+        String key = symbol.trim().toUpperCase();
+        Integer id = lookup(key);
+        if (id == null && buffer.getInt(H_COUNT) > indexed) {
+            // Added since we last looked, possibly by another process
+            synchronized (this) {
+                scan();
+            }
+            id = lookup(key);
+        }
+        return id != null ? id : -1;
+    }
+
+    /** Ticker of a symbol id */
+    public String tickerAt(int id) {
+        int base = HEADER + checkId(id) * RECORD;
+        byte[] bytes = new byte[buffer.get(base + TICKER)];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buffer.get(base + TICKER + 1 + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public double getPrice(int id) { return field(id, PRICE); }
+    public double getChange(int id) { return field(id, CHANGE); }
+    public double getChangePercent(int id) { return field(id, CHANGE_PCT); }
+    public double getOpen(int id) { return field(id, OPEN); }
+    public double getHigh(int id) { return field(id, HIGH); }
+    public double getLow(int id) { return field(id, LOW); }
+    public double getVolume(int id) { return field(id, VOLUME); }
+
+    /** Quote time of a symbol id, Unix seconds */
+    public long getTime(int id) {
+        int base = HEADER + checkId(id) * RECORD;
+        long before, value;
+        do {
+            before = stableSeq(base);
+            value = buffer.getLong(base + TIME);
+            Fences.load();
+        } while (buffer.getLong(base + SEQ) != before);
+        return value;
+    }
+
+    /**
+     * Latest price of a symbol
+     * @return Price, or NaN if not stored
+     */
+    public double getPrice(String symbol) {
+        int id = indexOf(symbol);
+        return id >= 0 ? getPrice(id) : Double.NaN;
+    }
+
+    /**
+     * Copy a consistent snapshot of a record
+     * @param id Symbol id
+     * @param into Quote to fill
+     * @return The filled quote
+     */
+    public FcsQuoteBook.Quote read(int id, FcsQuoteBook.Quote into) {
+        int base = HEADER + checkId(id) * RECORD;
+        long before;
+        do {
+            before = stableSeq(base);
+            into.price = buffer.getDouble(base + PRICE);
+            into.change = buffer.getDouble(base + CHANGE);
+            into.changePct = buffer.getDouble(base + CHANGE_PCT);
+            into.open = buffer.getDouble(base + OPEN);
+            into.high = buffer.getDouble(base + HIGH);
+            into.low = buffer.getDouble(base + LOW);
+            into.volume = buffer.getDouble(base + VOLUME);
+            into.time = buffer.getLong(base + TIME);
+            Fences.load();
+        } while (buffer.getLong(base + SEQ) != before);
+        into.ticker = tickerAt(id);
+        return into;
+    }
+
+    /**
+     * Snapshot of a symbol's quote
+     * @return New quote, or null if not stored
+     */
+    public FcsQuoteBook.Quote get(String symbol) {
+        int id = indexOf(symbol);
+        return id >= 0 ? read(id, new FcsQuoteBook.Quote()) : null;
+    }
+
+    /**
+     * Flush a file-backed store to disk
+     */
+    @Override
+    public void close() {
+        if (writable && buffer instanceof MappedByteBuffer) ((MappedByteBuffer) buffer).force();
+    }
+
+    // ==================== Internals ====================
+
+    private double field(int id, int offset) {
+        int base = HEADER + checkId(id) * RECORD;
+        long before;
+        double value;
+        do {
+            before = stableSeq(base);
+            value = buffer.getDouble(base + offset);
+            Fences.load();
+        } while (buffer.getLong(base + SEQ) != before);
+        return value;
+    }
+
+    /** Wait for an even sequence number, then order the field reads after it */
+    private long stableSeq(int base) {
+        long seq;
+        while (((seq = buffer.getLong(base + SEQ)) & 1) != 0) {
+            Thread.yield();
+        }
+        Fences.load();
+        return seq;
+    }
+
+    private int checkId(int id) {
+        if (id < 0 || id >= buffer.getInt(H_COUNT)) throw new IndexOutOfBoundsException("Id " + id + " of " + size());
+        return id;
+    }
+
+    private Integer lookup(String key) {
+        Integer id = index.get(key);
+        if (id == null && key.indexOf(':') >= 0) id = index.get(key.substring(key.indexOf(':') + 1));
+        return id;
+    }
+
+    /** Id of a symbol, appending a record if new; called by the writer only */
+    private int idOf(String symbol) {
+        String key = symbol.trim().toUpperCase();
+        Integer id = index.get(key);
+        if (id != null) return id;
+
+        int count = buffer.getInt(H_COUNT);
+        if (count >= capacity) return -1;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        // A truncated ticker would never match a reader's lookup of the full one
+        if (bytes.length > TICKER_MAX) return -1;
+        int length = bytes.length;
+        int base = HEADER + count * RECORD;
+        buffer.put(base + TICKER, (byte) length);
+        for (int i = 0; i < length; i++) buffer.put(base + TICKER + 1 + i, bytes[i]);
+        buffer.putLong(base + SEQ, 0);
+        buffer.putDouble(base + PRICE, Double.NaN);
+
+        // Record first, then the count that makes it visible to readers
+        Fences.store();
+        buffer.putInt(H_COUNT, count + 1);
+        index(key, count);
+        indexed = count + 1;
+        return count;
+    }
+
+    private void scan() {
+        int count = buffer.getInt(H_COUNT);
+        Fences.load();
+        for (int id = indexed; id < count; id++) index(tickerAt(id), id);
+        indexed = Math.max(indexed, count);
+    }
+
+    private void index(String key, int id) {
+        index.put(key, id);
+        int colon = key.indexOf(':');
+        if (colon >= 0) index.putIfAbsent(key.substring(colon + 1), id);
+    }
+
+    /**
+     * Memory fences for buffer access shared with other threads and processes
+     * VarHandle acquire/release fences on JDK 9+, sun.misc.Unsafe load/store
+     * fences on JDK 8, looked up reflectively so the class still targets Java 8.
+     */
+    private static final class Fences {
+        private static final MethodHandle LOAD;
+        private static final MethodHandle STORE;
+
+        static {
+            MethodHandle load = null, store = null;
+            try {
+                // JDK 9+
+                Class<?> varHandle = Class.forName("java.lang.invoke.VarHandle");
+                MethodType type = MethodType.methodType(void.class);
+                load = MethodHandles.publicLookup().findStatic(varHandle, "acquireFence", type);
+                store = MethodHandles.publicLookup().findStatic(varHandle, "releaseFence", type);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                try {
+                    Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                    Field f = unsafeClass.getDeclaredField("theUnsafe");
+                    f.setAccessible(true);
+                    Object unsafe = f.get(null);
+                    MethodHandles.Lookup lookup = MethodHandles.lookup();
+                    load = lookup.unreflect(unsafeClass.getMethod("loadFence")).bindTo(unsafe);
+                    store = lookup.unreflect(unsafeClass.getMethod("storeFence")).bindTo(unsafe);
+                } catch (ReflectiveOperationException | RuntimeException unavailable) {
+                    load = store = null;
+                }
+            }
+            LOAD = load;
+            STORE = store;
+        }
+
+        /** Fail fast: without fences readers could return torn quotes */
+        static void check() {
+            if (LOAD == null || STORE == null) {
+                throw new UnsupportedOperationException("FcsQuoteStore needs VarHandle or sun.misc.Unsafe memory fences");
+            }
+        }
+
+        static void load() {
+            try {
+                LOAD.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        static void store() {
+            try {
+                STORE.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
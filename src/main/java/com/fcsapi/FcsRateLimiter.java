@@ -0,0 +1,235 @@
+/**
+ * FCS API - Rate Limiter
+ *
+ * Client-side token bucket that keeps requests within the plan quota.
+ * Requests wait in priority order instead of failing on the server.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.Calendar;
+import java.util.PriorityQueue;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Plan-aware request limiter
+ * - perMinute: token bucket refilled continuously, bursts up to the full minute budget
+ * - perMonth: hard cap per calendar month (UTC); calls fail fast once it is used up
+ *
+ * Share one instance between clients that use the same API key.
+ */
+public class FcsRateLimiter {
+
+    /**
+     * Request priority classes, higher priorities are served first
+     */
+    public enum Priority {
+        /** Live quotes (latest, converter, cross rates) */
+        HIGH,
+        /** Everything else */
+        NORMAL,
+        /** Bulk fundamentals and reference data */
+        LOW
+    }
+
+    private final int perMinute;
+    private final long perMonth;
+    private final double tokensPerNano;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>();
+
+    private double tokens;
+    private long lastRefill;
+    private long monthUsed;
+    private long monthEndsAt;
+    private long sequence;
+
+    /**
+     * Constructor
+     * @param perMinute Requests per minute (0 = unlimited)
+     * @param perMonth Requests per calendar month (0 = unlimited)
+     */
+    public FcsRateLimiter(int perMinute, long perMonth) {
+        if (perMinute < 0 || perMonth < 0) throw new IllegalArgumentException("Limits must not be negative");
+        this.perMinute = perMinute;
+        this.perMonth = perMonth;
+        this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokens = perMinute;
+        this.lastRefill = System.nanoTime();
+        this.monthEndsAt = nextMonthStart(System.currentTimeMillis());
+    }
+
+    public int getPerMinute() { return perMinute; }
+    public long getPerMonth() { return perMonth; }
+
+    /**
+     * Requests counted against the current month
+     */
+    public long getMonthUsed() {
+        lock.lock();
+        try {
+            rollMonth();
+            return monthUsed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tokens currently available in the per-minute bucket
+     */
+    public double getAvailable() {
+        lock.lock();
+        try {
+            refill();
+            return perMinute > 0 ? tokens : Double.POSITIVE_INFINITY;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of requests waiting for a token
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for a request slot
+     * @param priority Request priority
+     * @return False if the monthly quota is used up
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquire(Priority priority) throws InterruptedException {
+        lock.lock();
+        try {
+            rollMonth();
+            if (perMonth > 0 && monthUsed >= perMonth) return false;
+            if (perMinute == 0) {
+                monthUsed++;
+                return true;
+            }
+
+            Waiter self = new Waiter(priority, sequence++);
+            queue.add(self);
+            try {
+                while (true) {
+                    refill();
+                    if (queue.peek() == self && tokens >= 1) {
+                        queue.poll();
+                        tokens -= 1;
+                        monthUsed++;
+                        changed.signalAll();
+                        return true;
+                    }
+                    if (queue.peek() == self) {
+                        // Head of the queue sleeps until the next token is due
+                        changed.awaitNanos(Math.max((long) ((1 - tokens) / tokensPerNano), 1000L));
+                    } else {
+                        changed.await();
+                    }
+                    if (perMonth > 0 && monthUsed >= perMonth) {
+                        queue.remove(self);
+                        changed.signalAll();
+                        return false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                queue.remove(self);
+                changed.signalAll();
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Priority used for an endpoint
+     * @param endpoint API endpoint, e.g. "stock/latest"
+     * @return Request priority
+     */
+    public static Priority priorityOf(String endpoint) {
+        String name = endpoint.substring(endpoint.lastIndexOf('/') + 1);
+        switch (name) {
+            case "latest":
+            case "base_latest":
+            case "indices_latest":
+            case "cross":
+            case "converter":
+                return Priority.HIGH;
+            case "balance_sheet":
+            case "cash_flow":
+            case "income_statements":
+            case "earnings":
+            case "revenue":
+            case "dividend":
+            case "statistics":
+            case "forecast":
+            case "stock_data":
+            case "list":
+            case "profile":
+            case "exchanges":
+            case "economy_cal":
+                return Priority.LOW;
+            default:
+                return Priority.NORMAL;
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(perMinute, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+    private void rollMonth() {
+        long now = System.currentTimeMillis();
+        if (now >= monthEndsAt) {
+            monthUsed = 0;
+            monthEndsAt = nextMonthStart(now);
+        }
+    }
+
+    private static long nextMonthStart(long now) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.setTimeInMillis(now);
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        cal.add(Calendar.MONTH, 1);
+        return cal.getTimeInMillis();
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        final Priority priority;
+        final long seq;
+
+        Waiter(Priority priority, long seq) {
+            this.priority = priority;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Waiter o) {
+            int c = priority.compareTo(o.priority);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+}
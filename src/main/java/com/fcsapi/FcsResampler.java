@@ -0,0 +1,232 @@
+/**
+ * FCS API - Candle Resampler
+ *
+ * Aggregates fine-grained candles into coarser periods locally, so one
+ * history fetch at the finest period can serve every timeframe.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming OHLCV resampler
+ *
+ * Candles go in one at a time, in time order; each finished target candle is
+ * handed to a listener as primitives once the first candle of the next one
+ * arrives. Feeding the same time again revises the last candle (as latest
+ * prices revise a forming candle). Nothing is allocated per candle.
+ *
+ * Buckets are aligned to UTC plus a session offset: minute and hour periods
+ * from the session start of each day, days at the session start, weeks on
+ * Mondays and months on the 1st. An offset of -7200, for example, makes
+ * daily candles run 22:00 to 22:00 UTC and weeks open Sunday 22:00. Buckets
+ * without source candles (weekends, holidays, gaps) produce no candle.
+ *
+ * Usage:
+ *   FcsCandleSeries m1 = fcsapi.getForex().getHistorySeries("EURUSD", "1m", 10000);
+ *   FcsCandleSeries h1 = FcsResampler.resample(m1, "1h");
+ *   Map&lt;String, FcsCandleSeries&gt; all = FcsResampler.resample(m1, 0, "5m", "15m", "1h", "1D");
+ *
+ *   FcsResampler live = new FcsResampler("4h", 0, (t, o, h, l, c, v) -&gt; onBar(t, c));
+ *   live.add(time, open, high, low, close, volume);
+ */
+public class FcsResampler {
+
+    /**
+     * Receives finished candles
+     */
+    public interface Listener {
+        void onCandle(long time, double open, double high, double low, double close, double volume);
+    }
+
+    private static final long DAY = 86400;
+    // 1970-01-05 was a Monday
+    private static final long MONDAY = 4 * DAY;
+
+    private final String period;
+    private final long seconds;
+    private final int months;
+    private final long offset;
+    private final Listener listener;
+
+    // Current bucket [bucketStart, bucketEnd) and the candles folded into it
+    private long bucketStart = Long.MIN_VALUE, bucketEnd = Long.MIN_VALUE;
+    private boolean folded;
+    private double open, high, low, close, volume;
+
+    // Last source candle, kept apart so it can be revised
+    private long lastTime = Long.MIN_VALUE;
+    private double lastOpen, lastHigh, lastLow, lastClose, lastVolume;
+
+    /**
+     * Constructor
+     * @param period Target period code: 1m..30m, 1h, 4h, 1D, 1W, 1M (or minutes, e.g. "240")
+     * @param sessionOffset Seconds added to UTC midnight to get the session start, e.g. -7200
+     * @param listener Receives each finished candle
+     */
+    public FcsResampler(String period, long sessionOffset, Listener listener) {
+        long s = FcsCandleSeries.periodSeconds(period);
+        if (period == null || s <= 0) throw new IllegalArgumentException("Unknown period: " + period);
+        this.period = period;
+        this.months = period.endsWith("M") ? (int) (s / (31 * DAY)) : 0;
+        this.seconds = s;
+        this.offset = sessionOffset;
+        this.listener = listener;
+    }
+
+    public String getPeriod() { return period; }
+
+    // ==================== Streaming ====================
+
+    /**
+     * Add a source candle
+     * @param time Candle open time, Unix seconds
+     * @return False if the candle is older than the last one added
+     */
+    public boolean add(long time, double open, double high, double low, double close, double volume) {
+        if (time < lastTime) return false;
+        if (time > lastTime) {
+            if (lastTime != Long.MIN_VALUE) fold();
+            if (time >= bucketEnd || time < bucketStart) {
+                emit();
+                bucket(time);
+            }
+        }
+        lastTime = time;
+        lastOpen = open;
+        lastHigh = high;
+        lastLow = low;
+        lastClose = close;
+        lastVolume = volume;
+        return true;
+    }
+
+    /**
+     * Hand the forming candle to the listener as if it were finished, and start over
+     */
+    public void flush() {
+        if (lastTime != Long.MIN_VALUE) fold();
+        emit();
+        lastTime = Long.MIN_VALUE;
+        bucketStart = bucketEnd = Long.MIN_VALUE;
+    }
+
+    /**
+     * Pass the forming candle (including the last source candle) to a listener without finishing it
+     * @return False if there is no forming candle
+     */
+    public boolean current(Listener into) {
+        if (lastTime == Long.MIN_VALUE) return false;
+        if (!folded) {
+            into.onCandle(bucketStart, lastOpen, lastHigh, lastLow, lastClose, volume + lastVolume);
+        } else {
+            into.onCandle(bucketStart, open, Math.max(high, lastHigh), Math.min(low, lastLow), lastClose, volume + lastVolume);
+        }
+        return true;
+    }
+
+    private void fold() {
+        if (!folded) {
+            open = lastOpen;
+            high = lastHigh;
+            low = lastLow;
+            volume = 0;
+            folded = true;
+        } else {
+            if (lastHigh > high) high = lastHigh;
+            if (lastLow < low) low = lastLow;
+        }
+        close = lastClose;
+        volume += lastVolume;
+        lastTime = Long.MIN_VALUE;
+    }
+
+    private void emit() {
+        if (folded) listener.onCandle(bucketStart, open, high, low, close, volume);
+        folded = false;
+        volume = 0;
+    }
+
+    /**
+     * Set the bucket containing a time
+     */
+    private void bucket(long time) {
+        long t = time - offset;
+        long start, end;
+        if (months > 0) {
+            LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(t, DAY));
+            long index = date.getYear() * 12L + date.getMonthValue() - 1;
+            index -= Math.floorMod(index, months);
+            LocalDate first = LocalDate.of((int) (index / 12), (int) (index % 12) + 1, 1);
+            start = first.toEpochDay() * DAY;
+            end = first.plusMonths(months).toEpochDay() * DAY;
+        } else if (seconds % (7 * DAY) == 0) {
+            start = Math.floorDiv(t - MONDAY, seconds) * seconds + MONDAY;
+            end = start + seconds;
+        } else if (seconds >= DAY || DAY % seconds != 0) {
+            start = Math.floorDiv(t, seconds) * seconds;
+            end = start + seconds;
+        } else {
+            // Intraday buckets restart at each session start
+            long day = Math.floorDiv(t, DAY) * DAY;
+            start = day + (t - day) / seconds * seconds;
+            end = Math.min(start + seconds, day + DAY);
+        }
+        bucketStart = start + offset;
+        bucketEnd = end + offset;
+    }
+
+    // ==================== Series ====================
+
+    /**
+     * Resample a series into a coarser period, aligned to UTC
+     * The last candle may be partial, like the forming candle of a history response.
+     */
+    public static FcsCandleSeries resample(FcsCandleSeries series, String period) {
+        return resample(series, period, 0);
+    }
+
+    /**
+     * Resample a series into a coarser period
+     * @param sessionOffset Seconds added to UTC midnight to get the session start
+     */
+    public static FcsCandleSeries resample(FcsCandleSeries series, String period, long sessionOffset) {
+        return resample(series, sessionOffset, period).get(period);
+    }
+
+    /**
+     * Resample a series into several periods in one pass
+     * @param sessionOffset Seconds added to UTC midnight to get the session start
+     * @param periods Target period codes
+     * @return Series per period code, in the order given
+     */
+    public static Map<String, FcsCandleSeries> resample(FcsCandleSeries series, long sessionOffset, String... periods) {
+        int n = series.size();
+        long span = n > 0 ? series.getLastTime() - series.getFirstTime() : 0;
+        FcsCandleSeries.Builder[] builders = new FcsCandleSeries.Builder[periods.length];
+        FcsResampler[] resamplers = new FcsResampler[periods.length];
+        for (int p = 0; p < periods.length; p++) {
+            long seconds = Math.max(FcsCandleSeries.periodSeconds(periods[p]), 1);
+            FcsCandleSeries.Builder builder = FcsCandleSeries.builder((int) Math.min(n, span / seconds + 2));
+            builders[p] = builder;
+            resamplers[p] = new FcsResampler(periods[p], sessionOffset, builder::add);
+        }
+        for (int i = 0; i < n; i++) {
+            long t = series.getTime(i);
+            double o = series.getOpen(i), h = series.getHigh(i), l = series.getLow(i), c = series.getClose(i), v = series.getVolume(i);
+            for (FcsResampler r : resamplers) r.add(t, o, h, l, c, v);
+        }
+        Map<String, FcsCandleSeries> out = new LinkedHashMap<>();
+        for (int p = 0; p < periods.length; p++) {
+            resamplers[p].flush();
+            out.put(periods[p], builders[p].build());
+        }
+        return out;
+    }
+}
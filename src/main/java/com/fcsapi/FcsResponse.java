@@ -0,0 +1,197 @@
+/**
+ * FCS API - Response
+ *
+ * Immutable result of a single API call. Safe to share between threads:
+ * the decoded body is read-only all the way down, and request() hands each
+ * caller its own mutable copy.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-call API result: status, code, msg, payload and timing
+ */
+public final class FcsResponse {
+
+    private static final Class<?> READ_ONLY_MAP = Collections.unmodifiableMap(new HashMap<>()).getClass();
+    private static final Class<?> READ_ONLY_LIST = Collections.unmodifiableList(new ArrayList<>()).getClass();
+    private static final Class<?> READ_ONLY_SEQUENTIAL_LIST = Collections.unmodifiableList(new LinkedList<>()).getClass();
+
+    private final boolean status;
+    private final int code;
+    private final String msg;
+    private final Object response;
+    private final Object info;
+    private final Map<String, Object> body;
+    private final long elapsedNanos;
+
+    private FcsResponse(boolean status, int code, String msg, Object response, Object info, Map<String, Object> body, long elapsedNanos) {
+        this.status = status;
+        this.code = code;
+        this.msg = msg;
+        this.response = response;
+        this.info = info;
+        this.body = body;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Create result from a decoded API response body
+     * The body's maps and lists are made read-only in place; do not keep mutating them.
+     * @param body Parsed JSON body
+     * @param elapsedNanos Request duration
+     * @return FcsResponse instance
+     */
+    @SuppressWarnings("unchecked")
+    public static FcsResponse of(Map<String, Object> body, long elapsedNanos) {
+        if (body == null) return error("Empty response", elapsedNanos);
+        body = (Map<String, Object>) freeze(body);
+        Object status = body.get("status");
+        Object code = body.get("code");
+        Object msg = body.get("msg");
+        return new FcsResponse(
+            status instanceof Boolean && (Boolean) status,
+            code instanceof Number ? ((Number) code).intValue() : 0,
+            msg != null ? msg.toString() : null,
+            body.get("response"),
+            body.get("info"),
+            body,
+            elapsedNanos);
+    }
+
+    /**
+     * Create failed result for a request that never produced an API response
+     * @param msg Error message
+     * @param elapsedNanos Request duration
+     * @return FcsResponse instance
+     */
+    public static FcsResponse error(String msg, long elapsedNanos) {
+        return new FcsResponse(false, 0, msg, null, null, null, elapsedNanos);
+    }
+
+    /** True if the API reported success */
+    public boolean isSuccess() { return status; }
+
+    /** API status code, 0 if the request failed before a response */
+    public int getCode() { return code; }
+
+    /** API message */
+    public String getMsg() { return msg; }
+
+    /** Response payload ("response" field) */
+    public Object getResponse() { return response; }
+
+    /** Request info ("info" field), may be null */
+    public Object getInfo() { return info; }
+
+    /** Request duration in nanoseconds */
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /** Request duration in milliseconds */
+    public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+    /**
+     * Error message
+     * @return Error message or null if successful
+     */
+    public String getError() {
+        if (status) return null;
+        return msg != null ? msg : "Unknown error";
+    }
+
+    /**
+     * Decoded response body as returned by the API
+     * @return Read-only body map, or null if no response was received
+     */
+    public Map<String, Object> getBody() {
+        return body;
+    }
+
+    /**
+     * Deep mutable copy of the body for the legacy request() return value
+     * Callers may modify it without affecting cached or shared results.
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> copyBody() {
+        return (Map<String, Object>) copy(body);
+    }
+
+    /**
+     * Response as a map in the legacy lastResponse format
+     * @return Body map, or an error map if no response was received
+     */
+    public Map<String, Object> toMap() {
+        if (body != null) return getBody();
+        Map<String, Object> map = new HashMap<>();
+        map.put("status", false);
+        map.put("code", 0);
+        map.put("msg", msg);
+        map.put("response", null);
+        return map;
+    }
+
+    // ==================== Read-only Body ====================
+
+    /**
+     * Make maps and lists read-only all the way down, wrapping in place
+     */
+    @SuppressWarnings("unchecked")
+    private static Object freeze(Object value) {
+        if (value instanceof Map) {
+            if (value.getClass() == READ_ONLY_MAP) return value;
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            try {
+                for (Map.Entry<Object, Object> e : map.entrySet()) e.setValue(freeze(e.getValue()));
+            } catch (UnsupportedOperationException e) {
+                return freeze(new LinkedHashMap<>(map));
+            }
+            return Collections.unmodifiableMap(map);
+        }
+        if (value instanceof List) {
+            if (value.getClass() == READ_ONLY_LIST || value.getClass() == READ_ONLY_SEQUENTIAL_LIST) return value;
+            List<Object> list = (List<Object>) value;
+            try {
+                list.replaceAll(FcsResponse::freeze);
+            } catch (UnsupportedOperationException e) {
+                return freeze(new ArrayList<>(list));
+            }
+            return Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+
+    /**
+     * Deep copy of maps and lists
+     */
+    private static Object copy(Object value) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            Map<Object, Object> out = new LinkedHashMap<>(Math.max(4, map.size() * 4 / 3 + 1));
+            for (Map.Entry<?, ?> e : map.entrySet()) out.put(e.getKey(), copy(e.getValue()));
+            return out;
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            List<Object> out = new ArrayList<>(list.size());
+            for (Object item : list) out.add(copy(item));
+            return out;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * FCS API - Response Cache
+ *
+ * Optional in-memory cache for slow-changing endpoints (profiles, symbol
+ * lists, exchanges, statistics). Enable with FcsConfig.setCache().
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU response cache with per-endpoint TTL and stale-while-revalidate
+ *
+ * Entries are keyed by endpoint plus sorted request parameters, auth
+ * parameters excluded. Only successful responses are stored.
+ *
+ * TTLs are looked up by full endpoint ("forex/latest") first, then by the
+ * endpoint name shared by all modules ("profile"). Endpoints without a TTL
+ * are not cached. Cached response maps are shared between callers and must
+ * not be modified.
+ */
+public class FcsResponseCache {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final int maxEntries;
+    private final Map<String, Long> ttls = new HashMap<>();
+    private volatile long staleWhileRevalidate;
+
+    private final LinkedHashMap<String, CacheEntry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor with default TTLs
+     * Reference data (list, profile, exchanges, indices) and fundamentals are
+     * cached for a day; quotes, history and technicals are not cached.
+     * @param maxEntries Maximum number of cached responses
+     */
+    public FcsResponseCache(int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > FcsResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        for (String name : new String[] { "list", "profile", "exchanges", "indices", "statistics", "earnings",
+                "revenue", "dividend", "balance_sheet", "income_statements", "cash_flow", "forecast", "stock_data" }) {
+            ttls.put(name, DAY);
+        }
+    }
+
+    /**
+     * Set TTL for an endpoint
+     * @param endpoint Full endpoint ("forex/latest") or endpoint name for all modules ("profile")
+     * @param ttlMillis Time to live in milliseconds, 0 disables caching
+     * @return Self for method chaining
+     */
+    public FcsResponseCache setTtl(String endpoint, long ttlMillis) {
+        synchronized (ttls) {
+            ttls.put(endpoint, ttlMillis);
+        }
+        return this;
+    }
+
+    /**
+     * Serve expired entries for this long while a background refresh runs
+     * @param millis Stale window in milliseconds, 0 disables
+     * @return Self for method chaining
+     */
+    public FcsResponseCache setStaleWhileRevalidate(long millis) {
+        this.staleWhileRevalidate = millis;
+        return this;
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getStaleHits() { return staleHits.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    /**
+     * Fraction of lookups served from the cache (fresh or stale)
+     */
+    public double getHitRate() {
+        long h = hits.sum() + staleHits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : h / (double) total;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Remove all cached responses of an endpoint
+     * @param endpoint Full endpoint, e.g. "stock/profile"
+     */
+    public synchronized void invalidate(String endpoint) {
+        String prefix = endpoint + "?";
+        Iterator<String> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().startsWith(prefix)) it.remove();
+        }
+    }
+
+    /**
+     * Return cached response or load it
+     * @param endpoint API endpoint
+     * @param parameters Request parameters
+     * @param loader Performs the request on a miss or refresh
+     * @param refresher Executor for stale-while-revalidate refreshes
+     * @return Response
+     */
+    FcsResponse get(String endpoint, Map<String, Object> parameters, Supplier<FcsResponse> loader, Executor refresher) {
+        long ttl = ttlOf(endpoint);
+        if (ttl <= 0) return loader.get();
+
+        String key = keyOf(endpoint, parameters);
+        long now = System.currentTimeMillis();
+        CacheEntry entry;
+        boolean refresh = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && now >= entry.expiresAt) {
+                if (now < entry.expiresAt + staleWhileRevalidate) {
+                    refresh = !entry.refreshing;
+                    entry.refreshing = true;
+                } else {
+                    entries.remove(key);
+                    entry = null;
+                }
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            FcsResponse response = loader.get();
+            store(key, response, ttl);
+            return response;
+        }
+
+        if (now < entry.expiresAt) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+            if (refresh) {
+                CacheEntry stale = entry;
+                refresher.execute(() -> {
+                    FcsResponse response = loader.get();
+                    if (!store(key, response, ttl)) {
+                        synchronized (this) {
+                            stale.refreshing = false;
+                        }
+                    }
+                });
+            }
+        }
+        return entry.response;
+    }
+
+    private boolean store(String key, FcsResponse response, long ttl) {
+        if (!response.isSuccess()) return false;
+        synchronized (this) {
+            entries.put(key, new CacheEntry(response, System.currentTimeMillis() + ttl));
+        }
+        return true;
+    }
+
+    private long ttlOf(String endpoint) {
+        synchronized (ttls) {
+            Long ttl = ttls.get(endpoint);
+            if (ttl == null) ttl = ttls.get(endpoint.substring(endpoint.lastIndexOf('/') + 1));
+            return ttl != null ? ttl : 0;
+        }
+    }
+
+    /**
+     * Normalized request key: endpoint plus sorted parameters, auth excluded
+     * Names and values are URL-encoded, so '=' or '&' inside them cannot make
+     * two different requests share a key.
+     * @param endpoint API endpoint
+     * @param parameters Request parameters
+     * @return Cache key
+     */
+    static String keyOf(String endpoint, Map<String, Object> parameters) {
+        StringBuilder key = new StringBuilder(endpoint).append('?');
+        if (parameters != null) {
+            List<String> pairs = new ArrayList<>(parameters.size());
+            try {
+                for (Map.Entry<String, Object> e : parameters.entrySet()) {
+                    String name = String.valueOf(e.getKey());
+                    if (name.equals("access_key") || name.equals("_token") || name.equals("_expiry") || name.equals("_public_key")) continue;
+                    pairs.add(URLEncoder.encode(name, "UTF-8") + '=' + URLEncoder.encode(String.valueOf(e.getValue()), "UTF-8"));
+                }
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+            Collections.sort(pairs);
+            for (String pair : pairs) key.append(pair).append('&');
+        }
+        return key.toString();
+    }
+
+    private static final class CacheEntry {
+        final FcsResponse response;
+        final long expiresAt;
+        boolean refreshing;
+
+        CacheEntry(FcsResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
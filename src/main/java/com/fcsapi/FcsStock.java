@@ -7,8 +7,10 @@
 
 package com.fcsapi;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Stock API Module
@@ -16,6 +18,7 @@ import java.util.Map;
 public class FcsStock {
 
     private final FcsApi api;
+    private volatile FcsLatestBatcher latestBatcher;
     private static final String BASE = "stock/";
 
     /**
@@ -105,6 +108,49 @@ public class FcsStock {
         return getLatestPrice(symbol, "1D", null, false);
     }
 
+    /**
+     * Get latest price of one symbol, batched with other concurrent calls
+     * Calls arriving within the FcsConfig batch window are sent as one
+     * comma-separated request.
+     * @param symbol Single symbol
+     * @param period Time period
+     * @return Future with the symbol's quote item, or null on error
+     */
+    public CompletableFuture<Map<String, Object>> getLatestPriceBatched(String symbol, String period) {
+        return getLatestBatcher().get(symbol, period);
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestPriceBatched(String symbol) {
+        return getLatestBatcher().get(symbol, "1D");
+    }
+
+    /**
+     * Subscribe to latest prices, receiving only quotes that changed
+     * @param symbols Symbols to poll
+     * @param listener Receives changed quotes
+     * @return Subscription handle, cancel() to stop
+     */
+    public FcsSubscriptions.Subscription subscribe(Collection<String> symbols, FcsSubscriptions.Listener listener) {
+        return api.getSubscriptions().subscribe(BASE + "latest", symbols, listener);
+    }
+
+    /**
+     * Get the batcher behind getLatestPriceBatched (lazy loading)
+     */
+    public FcsLatestBatcher getLatestBatcher() {
+        FcsLatestBatcher batcher = latestBatcher;
+        if (batcher == null) {
+            synchronized (this) {
+                if (latestBatcher == null) {
+                    FcsConfig config = api.getConfig();
+                    latestBatcher = new FcsLatestBatcher(api, BASE + "latest", config.getBatchWindow(), config.getBatchMaxSymbols());
+                }
+                batcher = latestBatcher;
+            }
+        }
+        return batcher;
+    }
+
     /**
      * Get all latest prices by exchange
      */
@@ -154,15 +200,7 @@ public class FcsStock {
      * Get historical prices
      */
     public Map<String, Object> getHistory(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("symbol", symbol);
-        params.put("period", period != null ? period : "1D");
-        params.put("length", length);
-        params.put("page", page);
-        if (fromDate != null && !fromDate.isEmpty()) params.put("from", fromDate);
-        if (toDate != null && !toDate.isEmpty()) params.put("to", toDate);
-        if (isChart) params.put("is_chart", 1);
-        return api.request(BASE + "history", params);
+        return api.request(BASE + "history", historyParams(symbol, period, length, fromDate, toDate, page, isChart));
     }
 
     public Map<String, Object> getHistory(String symbol, String period, int length) {
@@ -173,6 +211,60 @@ public class FcsStock {
         return getHistory(symbol, "1D", 300, null, null, 1, false);
     }
 
+    /**
+     * Get historical prices as a columnar candle series
+     * Decoded straight from the response, without Map/Double boxing.
+     * @return Candle series (time ascending) or null on error
+     */
+    public FcsCandleSeries getHistorySeries(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        return api.requestCandles(BASE + "history", historyParams(symbol, period, length, fromDate, toDate, page, isChart));
+    }
+
+    public FcsCandleSeries getHistorySeries(String symbol, String period, int length) {
+        return getHistorySeries(symbol, period, length, null, null, 1, false);
+    }
+
+    /**
+     * Iterate over every history page of a date range
+     * The next page is fetched while the current one is processed.
+     * @param length Candles per page
+     * @return Pager yielding one candle series per page
+     */
+    public FcsHistoryPager getHistoryPages(String symbol, String period, int length, String fromDate, String toDate) {
+        return new FcsHistoryPager(api, BASE + "history", historyParams(symbol, period, length, fromDate, toDate, 1, false), 1);
+    }
+
+    /**
+     * Get every candle of a date range as one series
+     * With FcsConfig.setCandleStore() set, candles downloaded before are read
+     * from disk and only missing ranges are requested.
+     * @param toDate Range end, null = now
+     * @return Candle series (time ascending) or null on error
+     */
+    public FcsCandleSeries getHistoryRange(String symbol, String period, String fromDate, String toDate) {
+        return api.requestCandleRange(BASE + "history", symbol, period, fromDate, toDate);
+    }
+
+    /**
+     * Create a backfill job downloading a date range for many symbols in parallel
+     * @return FcsBackfill job, start it with run() or runAsync()
+     */
+    public FcsBackfill newBackfill(Collection<String> symbols, String period, String fromDate, String toDate) {
+        return new FcsBackfill(api, BASE + "history", symbols, period, fromDate, toDate);
+    }
+
+    private static Map<String, Object> historyParams(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("symbol", symbol);
+        params.put("period", period != null ? period : "1D");
+        params.put("length", length);
+        params.put("page", page);
+        if (fromDate != null && !fromDate.isEmpty()) params.put("from", fromDate);
+        if (toDate != null && !toDate.isEmpty()) params.put("to", toDate);
+        if (isChart) params.put("is_chart", 1);
+        return params;
+    }
+
     // ==================== Profile ====================
 
     /**
@@ -488,4 +580,152 @@ public class FcsStock {
         if (baseUrl != null && !baseUrl.isEmpty()) params.put("base", baseUrl);
         return api.request(BASE + "multi_url", params);
     }
+
+    // ==================== Async ====================
+
+    // Non-blocking counterparts, run on the executor from FcsConfig.setExecutor()
+
+    public CompletableFuture<Map<String, Object>> getSymbolsListAsync(String exchange, String country, String sector, String indices) {
+        return api.supplyAsync(() -> getSymbolsList(exchange, country, sector, indices));
+    }
+
+    public CompletableFuture<Map<String, Object>> getIndicesListAsync(String country, String exchange) {
+        return api.supplyAsync(() -> getIndicesList(country, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getIndicesLatestAsync(String symbol, String country, String exchange) {
+        return api.supplyAsync(() -> getIndicesLatest(symbol, country, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestPriceAsync(String symbol) {
+        return api.supplyAsync(() -> getLatestPrice(symbol));
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestPriceAsync(String symbol, String period, String exchange, boolean getProfile) {
+        return api.supplyAsync(() -> getLatestPrice(symbol, period, exchange, getProfile));
+    }
+
+    public CompletableFuture<Map<String, Object>> getAllPricesAsync(String exchange, String period) {
+        return api.supplyAsync(() -> getAllPrices(exchange, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestByCountryAsync(String country, String sector, String period) {
+        return api.supplyAsync(() -> getLatestByCountry(country, sector, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> getLatestByIndicesAsync(String indices, String period) {
+        return api.supplyAsync(() -> getLatestByIndices(indices, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> getHistoryAsync(String symbol, String period, int length) {
+        return api.supplyAsync(() -> getHistory(symbol, period, length));
+    }
+
+    public CompletableFuture<Map<String, Object>> getHistoryAsync(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        return api.supplyAsync(() -> getHistory(symbol, period, length, fromDate, toDate, page, isChart));
+    }
+
+    public CompletableFuture<FcsCandleSeries> getHistorySeriesAsync(String symbol, String period, int length, String fromDate, String toDate, int page, boolean isChart) {
+        return api.supplyAsync(() -> getHistorySeries(symbol, period, length, fromDate, toDate, page, isChart));
+    }
+
+    public CompletableFuture<FcsCandleSeries> getHistoryRangeAsync(String symbol, String period, String fromDate, String toDate) {
+        return api.supplyAsync(() -> getHistoryRange(symbol, period, fromDate, toDate));
+    }
+
+    public CompletableFuture<Map<String, Object>> getProfileAsync(String symbol) {
+        return api.supplyAsync(() -> getProfile(symbol));
+    }
+
+    public CompletableFuture<Map<String, Object>> getExchangesAsync(String type, String subType) {
+        return api.supplyAsync(() -> getExchanges(type, subType));
+    }
+
+    public CompletableFuture<Map<String, Object>> getEarningsAsync(String symbol, String duration) {
+        return api.supplyAsync(() -> getEarnings(symbol, duration));
+    }
+
+    public CompletableFuture<Map<String, Object>> getRevenueAsync(String symbol) {
+        return api.supplyAsync(() -> getRevenue(symbol));
+    }
+
+    public CompletableFuture<Map<String, Object>> getDividendsAsync(String symbol, String format) {
+        return api.supplyAsync(() -> getDividends(symbol, format));
+    }
+
+    public CompletableFuture<Map<String, Object>> getBalanceSheetAsync(String symbol, String duration, String format) {
+        return api.supplyAsync(() -> getBalanceSheet(symbol, duration, format));
+    }
+
+    public CompletableFuture<Map<String, Object>> getIncomeStatementsAsync(String symbol, String duration, String format) {
+        return api.supplyAsync(() -> getIncomeStatements(symbol, duration, format));
+    }
+
+    public CompletableFuture<Map<String, Object>> getCashFlowAsync(String symbol, String duration, String format) {
+        return api.supplyAsync(() -> getCashFlow(symbol, duration, format));
+    }
+
+    public CompletableFuture<Map<String, Object>> getStatisticsAsync(String symbol, String duration) {
+        return api.supplyAsync(() -> getStatistics(symbol, duration));
+    }
+
+    public CompletableFuture<Map<String, Object>> getForecastAsync(String symbol) {
+        return api.supplyAsync(() -> getForecast(symbol));
+    }
+
+    public CompletableFuture<Map<String, Object>> getStockDataAsync(String symbol, String dataColumn, String duration, String format) {
+        return api.supplyAsync(() -> getStockData(symbol, dataColumn, duration, format));
+    }
+
+    public CompletableFuture<Map<String, Object>> getMovingAveragesAsync(String symbol, String period) {
+        return api.supplyAsync(() -> getMovingAverages(symbol, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> getIndicatorsAsync(String symbol, String period) {
+        return api.supplyAsync(() -> getIndicators(symbol, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> getPivotPointsAsync(String symbol, String period) {
+        return api.supplyAsync(() -> getPivotPoints(symbol, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> getPerformanceAsync(String symbol) {
+        return api.supplyAsync(() -> getPerformance(symbol));
+    }
+
+    public CompletableFuture<Map<String, Object>> advancedAsync(Map<String, Object> parameters) {
+        return api.supplyAsync(() -> advanced(parameters));
+    }
+
+    public CompletableFuture<Map<String, Object>> getTopGainersAsync(String exchange, int limit, String period, String country) {
+        return api.supplyAsync(() -> getTopGainers(exchange, limit, period, country));
+    }
+
+    public CompletableFuture<Map<String, Object>> getTopLosersAsync(String exchange, int limit, String period, String country) {
+        return api.supplyAsync(() -> getTopLosers(exchange, limit, period, country));
+    }
+
+    public CompletableFuture<Map<String, Object>> getMostActiveAsync(String exchange, int limit, String period, String country) {
+        return api.supplyAsync(() -> getMostActive(exchange, limit, period, country));
+    }
+
+    public CompletableFuture<Map<String, Object>> getSortedDataAsync(String sortColumn, String sortDirection, int limit, String exchange, String country, String period) {
+        return api.supplyAsync(() -> getSortedData(sortColumn, sortDirection, limit, exchange, country, period));
+    }
+
+    public CompletableFuture<Map<String, Object>> searchAsync(String query, String exchange, String country) {
+        return api.supplyAsync(() -> search(query, exchange, country));
+    }
+
+    public CompletableFuture<Map<String, Object>> getBySectorAsync(String sector, int limit, String exchange) {
+        return api.supplyAsync(() -> getBySector(sector, limit, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> getByCountryAsync(String country, int limit, String exchange) {
+        return api.supplyAsync(() -> getByCountry(country, limit, exchange));
+    }
+
+    public CompletableFuture<Map<String, Object>> multiUrlAsync(String[] urls, String baseUrl) {
+        return api.supplyAsync(() -> multiUrl(urls, baseUrl));
+    }
 }
@@ -0,0 +1,399 @@
+/**
+ * FCS API - Quote Subscriptions
+ *
+ * Polls the latest-price endpoints for registered symbol sets and delivers
+ * only the quotes that changed since the previous poll.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polling subscription engine
+ *
+ * All subscriptions of a client share one timer on the configured scheduler.
+ * Symbols of the same endpoint that are due are sent together in one
+ * latest-price request (split into chunks by the client when the list is
+ * long). Each symbol has its own polling interval: it shrinks toward the
+ * minimum while the quote keeps changing, grows toward the maximum while it
+ * does not, and switches to the closed interval outside market hours.
+ *
+ * Usage:
+ *   FcsSubscriptions.Subscription sub = fcsapi.getForex().subscribe(Arrays.asList("EURUSD", "GBPUSD"),
+ *       changed -&gt; changed.forEach((symbol, quote) -&gt; System.out.println(symbol + " " + quote)));
+ *   ...
+ *   sub.cancel();
+ *
+ * Listeners are called from client executor threads, one call per poll with
+ * changes; the first poll delivers every quote. An exception thrown by a
+ * listener goes to the thread's uncaught exception handler and polling goes on.
+ */
+public class FcsSubscriptions implements Closeable {
+
+    /**
+     * Receives changed quotes
+     */
+    public interface Listener {
+
+        /**
+         * Quotes that changed since the last delivery
+         * @param changed Quote items keyed by subscribed symbol
+         */
+        void onQuotes(Map<String, Map<String, Object>> changed);
+
+        /** A poll failed, polling continues */
+        default void onError(FcsResponse error) {
+        }
+    }
+
+    /**
+     * Decides whether a symbol's market is open
+     */
+    public interface MarketHours {
+
+        /**
+         * @param endpoint Latest endpoint, e.g. "forex/latest"
+         * @param symbol Subscribed symbol
+         * @param timeMillis Current time
+         * @return True if quotes are expected to move
+         */
+        boolean isOpen(String endpoint, String symbol, long timeMillis);
+    }
+
+    /**
+     * Default market hours: forex closes from Friday 22:00 to Sunday 21:00 UTC,
+     * everything else is treated as open and left to change-based backoff
+     */
+    public static final MarketHours DEFAULT_MARKET_HOURS = (endpoint, symbol, timeMillis) -> {
+        if (!endpoint.startsWith("forex/")) return true;
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        utc.setTimeInMillis(timeMillis);
+        int day = utc.get(Calendar.DAY_OF_WEEK);
+        int hour = utc.get(Calendar.HOUR_OF_DAY);
+        if (day == Calendar.SATURDAY) return false;
+        if (day == Calendar.FRIDAY) return hour < 22;
+        if (day == Calendar.SUNDAY) return hour >= 21;
+        return true;
+    };
+
+    private static final long TICK_MILLIS = 100;
+
+    private final FcsApi api;
+    private final Map<String, Feed> feeds = new HashMap<>();
+    private ScheduledFuture<?> timer;
+
+    private volatile long minInterval = 1000;
+    private volatile long maxInterval = 30000;
+    private volatile long closedInterval = 300000;
+    private volatile MarketHours marketHours = DEFAULT_MARKET_HOURS;
+
+    /**
+     * Constructor
+     * @param api FcsApi instance
+     */
+    public FcsSubscriptions(FcsApi api) {
+        this.api = api;
+    }
+
+    public long getMinInterval() { return minInterval; }
+    public void setMinInterval(long millis) { this.minInterval = Math.max(millis, TICK_MILLIS); }
+
+    public long getMaxInterval() { return maxInterval; }
+    public void setMaxInterval(long millis) { this.maxInterval = millis; }
+
+    public long getClosedInterval() { return closedInterval; }
+    public void setClosedInterval(long millis) { this.closedInterval = millis; }
+
+    public MarketHours getMarketHours() { return marketHours; }
+    public void setMarketHours(MarketHours marketHours) { this.marketHours = marketHours != null ? marketHours : DEFAULT_MARKET_HOURS; }
+
+    /**
+     * Subscribe to latest prices of a symbol set
+     * @param endpoint Latest endpoint, e.g. "crypto/latest"
+     * @param symbols Symbols, e.g. "BINANCE:BTCUSDT"
+     * @param listener Receives changed quotes
+     * @return Subscription handle, cancel() to stop
+     */
+    public Subscription subscribe(String endpoint, Collection<String> symbols, Listener listener) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.trim().isEmpty()) keys.add(symbol.trim().toUpperCase());
+        }
+        Subscription sub = new Subscription(endpoint, keys, listener);
+
+        synchronized (this) {
+            Feed feed = feeds.computeIfAbsent(endpoint, Feed::new);
+            feed.subscriptions.add(sub);
+            for (String key : keys) {
+                SymbolState state = feed.symbols.computeIfAbsent(key, k -> new SymbolState(minInterval));
+                state.refs++;
+                state.nextPoll = 0;
+            }
+            if (timer == null) {
+                timer = api.getConfig().getScheduler().scheduleWithFixedDelay(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        return sub;
+    }
+
+    /**
+     * Number of distinct symbols currently polled
+     */
+    public synchronized int getSymbolCount() {
+        int count = 0;
+        for (Feed feed : feeds.values()) count += feed.symbols.size();
+        return count;
+    }
+
+    /**
+     * Cancel all subscriptions and stop polling
+     */
+    @Override
+    public synchronized void close() {
+        for (Feed feed : feeds.values()) {
+            for (Subscription sub : feed.subscriptions) sub.cancelled = true;
+        }
+        feeds.clear();
+        stopTimer();
+    }
+
+    private synchronized void unsubscribe(Subscription sub) {
+        Feed feed = feeds.get(sub.endpoint);
+        if (feed == null || !feed.subscriptions.remove(sub)) return;
+        for (String key : sub.symbols) {
+            SymbolState state = feed.symbols.get(key);
+            if (state != null && --state.refs <= 0) feed.symbols.remove(key);
+        }
+        if (feed.subscriptions.isEmpty()) feeds.remove(sub.endpoint);
+        if (feeds.isEmpty()) stopTimer();
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+    // ==================== Polling ====================
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Feed> due = new ArrayList<>();
+            List<List<String>> dueSymbols = new ArrayList<>();
+            synchronized (this) {
+                for (Feed feed : feeds.values()) {
+                    if (feed.polling) continue;
+                    List<String> symbols = new ArrayList<>();
+                    for (Map.Entry<String, SymbolState> e : feed.symbols.entrySet()) {
+                        if (e.getValue().nextPoll <= now) symbols.add(e.getKey());
+                    }
+                    if (symbols.isEmpty()) continue;
+                    feed.polling = true;
+                    due.add(feed);
+                    dueSymbols.add(symbols);
+                }
+            }
+            for (int i = 0; i < due.size(); i++) poll(due.get(i), dueSymbols.get(i));
+        } catch (RuntimeException e) {
+            // Keep the timer alive, the next tick retries
+            report(e);
+        }
+    }
+
+    /**
+     * Report a failure that must not stop polling
+     * Goes to the thread's uncaught exception handler, by default
+     * Thread.getDefaultUncaughtExceptionHandler() or a stack trace on stderr.
+     */
+    private static void report(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        try {
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        } catch (RuntimeException ignored) {
+            // A failing handler has nowhere left to report to
+        }
+    }
+
+    private void poll(Feed feed, List<String> symbols) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("symbol", String.join(",", symbols));
+        CompletableFuture<FcsResponse> request;
+        try {
+            request = api.executeAsync(feed.endpoint, params);
+        } catch (RuntimeException e) {
+            // E.g. a saturated or shut down executor; deliver() clears polling so the next tick retries
+            deliver(feed, symbols, FcsResponse.error("Request Error: " + e, 0));
+            return;
+        }
+        request.whenComplete((response, error) -> {
+            if (response == null) response = FcsResponse.error("Request Error: " + error, 0);
+            deliver(feed, symbols, response);
+        });
+    }
+
+    private void deliver(Feed feed, List<String> symbols, FcsResponse response) {
+        long now = System.currentTimeMillis();
+        Map<Subscription, Map<String, Map<String, Object>>> deliveries = new LinkedHashMap<>();
+        List<Subscription> failed = Collections.emptyList();
+
+        synchronized (this) {
+            feed.polling = false;
+            if (feeds.get(feed.endpoint) != feed) return;
+
+            if (!response.isSuccess()) {
+                failed = new ArrayList<>(feed.subscriptions);
+                for (String key : symbols) {
+                    SymbolState state = feed.symbols.get(key);
+                    if (state != null) state.nextPoll = now + state.interval;
+                }
+            } else {
+                Map<String, Map<String, Object>> quotes = FcsLatestBatcher.quotesBySymbol(response.getResponse());
+                Map<String, Map<String, Object>> changed = new HashMap<>();
+                for (String key : symbols) {
+                    SymbolState state = feed.symbols.get(key);
+                    if (state == null) continue;
+                    Map<String, Object> quote = FcsLatestBatcher.findQuote(quotes, key);
+                    if (quote != null && !sameQuote(state.last, quote)) {
+                        state.last = quote;
+                        state.interval = Math.max(minInterval, state.interval / 2);
+                        changed.put(key, quote);
+                    } else {
+                        state.interval = Math.min(maxInterval, Math.max(minInterval, state.interval * 3 / 2));
+                    }
+                    long wait = marketHours.isOpen(feed.endpoint, key, now) ? state.interval : Math.max(state.interval, closedInterval);
+                    state.nextPoll = now + wait;
+                }
+
+                for (Subscription sub : feed.subscriptions) {
+                    Map<String, Map<String, Object>> mine = new LinkedHashMap<>();
+                    for (String key : sub.symbols) {
+                        Map<String, Object> quote = changed.get(key);
+                        // A new subscriber also gets quotes that did not change
+                        if (quote == null && sub.unseen.contains(key)) quote = feed.symbols.get(key).last;
+                        if (quote != null) {
+                            mine.put(key, quote);
+                            sub.unseen.remove(key);
+                        }
+                    }
+                    if (!mine.isEmpty()) deliveries.put(sub, mine);
+                }
+            }
+        }
+
+        // Listeners run outside the lock so they may subscribe or cancel
+        for (Subscription sub : failed) sub.notifyError(response);
+        for (Map.Entry<Subscription, Map<String, Map<String, Object>>> e : deliveries.entrySet()) {
+            e.getKey().notifyQuotes(e.getValue());
+        }
+    }
+
+    /**
+     * Compare the live part of two quote items ("active" block if present)
+     */
+    private static boolean sameQuote(Map<String, Object> last, Map<String, Object> quote) {
+        if (last == null) return false;
+        Object a = last.get("active");
+        Object b = quote.get("active");
+        return a != null || b != null ? a != null && a.equals(b) : last.equals(quote);
+    }
+
+    // ==================== Subscription ====================
+
+    /**
+     * Handle of one registered symbol set
+     */
+    public final class Subscription {
+        private final String endpoint;
+        private final Set<String> symbols;
+        private final Listener listener;
+        private volatile boolean cancelled;
+
+        /** Symbols not delivered to this subscriber yet, guarded by the engine */
+        private final Set<String> unseen;
+
+        private Subscription(String endpoint, Set<String> symbols, Listener listener) {
+            this.endpoint = endpoint;
+            this.symbols = Collections.unmodifiableSet(symbols);
+            this.listener = listener;
+            this.unseen = new HashSet<>(symbols);
+        }
+
+        public String getEndpoint() { return endpoint; }
+
+        /** Subscribed symbols, upper-case */
+        public Set<String> getSymbols() { return symbols; }
+
+        public boolean isCancelled() { return cancelled; }
+
+        /**
+         * Stop receiving quotes; symbols no other subscription uses stop being polled
+         */
+        public void cancel() {
+            cancelled = true;
+            unsubscribe(this);
+        }
+
+        private void notifyQuotes(Map<String, Map<String, Object>> changed) {
+            if (cancelled) return;
+            try {
+                listener.onQuotes(Collections.unmodifiableMap(changed));
+            } catch (RuntimeException e) {
+                // A failing listener must not stop other subscribers
+                report(e);
+            }
+        }
+
+        private void notifyError(FcsResponse error) {
+            if (cancelled) return;
+            try {
+                listener.onError(error);
+            } catch (RuntimeException e) {
+                // A failing listener must not stop other subscribers
+                report(e);
+            }
+        }
+    }
+
+    private static final class Feed {
+        final String endpoint;
+        final Map<String, SymbolState> symbols = new LinkedHashMap<>();
+        final List<Subscription> subscriptions = new ArrayList<>();
+        boolean polling;
+
+        Feed(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private static final class SymbolState {
+        int refs;
+        long interval;
+        long nextPoll;
+        Map<String, Object> last;
+
+        SymbolState(long interval) {
+            this.interval = interval;
+        }
+    }
+}
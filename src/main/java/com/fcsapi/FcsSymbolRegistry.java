@@ -0,0 +1,413 @@
+/**
+ * FCS API - Symbol Registry
+ *
+ * Local copy of the forex, crypto and stock symbol lists with an in-memory
+ * search index, so symbol pickers do not need a request per keystroke.
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searchable registry of all symbols
+ *
+ * load() downloads the symbol list of each market and builds an immutable
+ * index, which replaces the previous one in a single volatile write; searches
+ * never lock and always see a complete index. A market whose list fails to
+ * load keeps its previous entries.
+ *
+ * The index is a sorted array of keys (symbols, exchanges and the words of
+ * each name), searched by prefix with a binary search. Repeated strings such
+ * as exchange, country and sector names are shared between entries.
+ *
+ * Usage:
+ *   FcsSymbolRegistry symbols = fcsapi.getSymbolRegistry();
+ *   symbols.load();
+ *   symbols.refreshEvery(6, TimeUnit.HOURS);
+ *   List&lt;FcsSymbolRegistry.Entry&gt; hits = symbols.search("appl", 10);
+ */
+public class FcsSymbolRegistry {
+
+    /** Markets loaded by default */
+    public static final List<String> MARKETS = Collections.unmodifiableList(Arrays.asList("forex", "crypto", "stock"));
+
+    private static final byte KIND_SYMBOL = 0;
+    private static final byte KIND_EXCHANGE = 1;
+    private static final byte KIND_NAME = 2;
+
+    private final FcsApi api;
+    private volatile Index index = Index.EMPTY;
+    private ScheduledFuture<?> refresh;
+
+    /**
+     * Constructor
+     * @param api FcsApi instance
+     */
+    public FcsSymbolRegistry(FcsApi api) {
+        this.api = api;
+    }
+
+    /**
+     * One listed symbol
+     */
+    public static final class Entry {
+        private final String market;
+        private final String ticker;
+        private final String symbol;
+        private final String name;
+        private final String exchange;
+        private final String type;
+        private final String country;
+        private final String sector;
+
+        Entry(String market, String ticker, String symbol, String name, String exchange, String type, String country, String sector) {
+            this.market = market;
+            this.ticker = ticker;
+            this.symbol = symbol;
+            this.name = name;
+            this.exchange = exchange;
+            this.type = type;
+            this.country = country;
+            this.sector = sector;
+        }
+
+        /** Market: forex, crypto or stock */
+        public String getMarket() { return market; }
+        /** Full ticker, e.g. "NASDAQ:AAPL" */
+        public String getTicker() { return ticker; }
+        public String getSymbol() { return symbol; }
+        public String getName() { return name; }
+        public String getExchange() { return exchange; }
+        public String getType() { return type; }
+        public String getCountry() { return country; }
+        public String getSector() { return sector; }
+
+        @Override
+        public String toString() {
+            return ticker + (name != null ? " (" + name + ")" : "");
+        }
+    }
+
+    // ==================== Loading ====================
+
+    /**
+     * Download all symbol lists and replace the index
+     * @return Number of symbols in the new index
+     */
+    public int load() {
+        Index previous = index;
+        List<Entry> entries = new ArrayList<>();
+        Map<String, String> pool = new HashMap<>();
+        for (String market : MARKETS) {
+            Map<String, Object> params = new HashMap<>();
+            if (market.equals("crypto")) params.put("type", "crypto");
+            FcsResponse response = api.execute(market + "/list", params);
+            if (response.isSuccess()) {
+                parse(market, response.getResponse(), pool, entries);
+            } else {
+                for (Entry e : previous.entries) {
+                    if (e.market.equals(market)) entries.add(e);
+                }
+            }
+        }
+        index = new Index(entries);
+        return entries.size();
+    }
+
+    /**
+     * Load on the client executor
+     * @return Future with the number of symbols
+     */
+    public CompletableFuture<Integer> loadAsync() {
+        return api.supplyAsync(this::load);
+    }
+
+    /**
+     * Reload the lists periodically on the client scheduler
+     * The download runs on the client executor, searches keep using the
+     * current index until the new one is ready.
+     * @param period Time between reloads
+     * @param unit Unit of period
+     */
+    public synchronized void refreshEvery(long period, TimeUnit unit) {
+        stopRefresh();
+        refresh = api.getConfig().getScheduler().scheduleWithFixedDelay(() -> loadAsync(), period, period, unit);
+    }
+
+    /**
+     * Stop periodic reloads
+     */
+    public synchronized void stopRefresh() {
+        if (refresh != null) {
+            refresh.cancel(false);
+            refresh = null;
+        }
+    }
+
+    private static void parse(String market, Object response, Map<String, String> pool, List<Entry> out) {
+        Iterable<?> items;
+        if (response instanceof List) items = (List<?>) response;
+        else if (response instanceof Map) items = ((Map<?, ?>) response).values();
+        else return;
+
+        for (Object item : items) {
+            if (!(item instanceof Map)) continue;
+            Map<?, ?> m = (Map<?, ?>) item;
+            String ticker = text(m, "ticker");
+            String symbol = text(m, "symbol");
+            if (ticker == null) ticker = symbol;
+            if (ticker == null) continue;
+            ticker = ticker.toUpperCase();
+            int colon = ticker.indexOf(':');
+            if (symbol == null) symbol = colon >= 0 ? ticker.substring(colon + 1) : ticker;
+            String exchange = text(m, "exchange");
+            if (exchange == null && colon > 0) exchange = ticker.substring(0, colon);
+            String name = text(m, "name");
+            if (name == null) name = text(m, "description");
+            if (name == null) name = text(m, "full_name");
+
+            out.add(new Entry(market, ticker, symbol.toUpperCase(), name, intern(pool, exchange),
+                    intern(pool, text(m, "type")), intern(pool, text(m, "country")), intern(pool, text(m, "sector"))));
+        }
+    }
+
+    private static String text(Map<?, ?> m, String key) {
+        Object v = m.get(key);
+        if (v == null) return null;
+        String s = v.toString().trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    private static String intern(Map<String, String> pool, String value) {
+        if (value == null) return null;
+        String shared = pool.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    // ==================== Search ====================
+
+    /** Number of symbols in the index */
+    public int size() {
+        return index.entries.length;
+    }
+
+    /** Current index, replaced by every load, so caches built from entries can tell when to rebuild */
+    Object generation() {
+        return index;
+    }
+
+    /**
+     * Look up a symbol by ticker or bare symbol
+     * @return Entry, or null if unknown
+     */
+    public Entry get(String ticker) {
+        return index.byTicker.get(ticker.trim().toUpperCase());
+    }
+
+    /**
+     * Search all markets
+     * @param query Symbol or name prefix, several words narrow the result ("bitcoin usd")
+     * @param limit Max results
+     * @return Matches, exact symbols first, then symbol prefixes, then name matches
+     */
+    public List<Entry> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /**
+     * Search one market
+     * @param query Symbol or name prefix
+     * @param market forex, crypto or stock; null for all
+     * @param limit Max results
+     * @return Matches in rank order
+     */
+    public List<Entry> search(String query, String market, int limit) {
+        Index idx = index;
+        String[] words = normalize(query).split(" ");
+        if (words.length == 0 || words[0].isEmpty() || limit <= 0) return Collections.emptyList();
+
+        // Candidates match the first word or, for several words, form a symbol together ("EUR/USD")
+        String compact = String.join("", words);
+        BitSet candidates = new BitSet(idx.entries.length);
+        idx.scan(words[0], (id, kind, exact) -> candidates.set(id));
+        if (words.length > 1) {
+            idx.scan(compact, (id, kind, exact) -> {
+                if (kind == KIND_SYMBOL) candidates.set(id);
+            });
+        }
+
+        // Keep the best matches ordered by score, symbol length, then list order
+        long[] top = new long[limit];
+        int found = 0;
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            Entry e = idx.entries[id];
+            if (market != null && !market.equals(e.market)) continue;
+            int score = idx.rank(id, words, compact);
+            if (score < 0) continue;
+            long key = (long) score << 48 | (long) Math.min(e.symbol.length(), 0xffff) << 32 | id;
+            if (found == limit && key >= top[limit - 1]) continue;
+            int pos = found < limit ? found++ : limit - 1;
+            while (pos > 0 && top[pos - 1] > key) {
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            top[pos] = key;
+        }
+
+        List<Entry> out = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) out.add(idx.entries[(int) top[i]]);
+        return out;
+    }
+
+    /** Exact symbol 0, symbol prefix 1, exchange 2-3, name word 4-5 */
+    private static int score(byte kind, boolean exact) {
+        return kind * 2 + (exact ? 0 : 1);
+    }
+
+    /** Upper-case, separators collapsed to single spaces */
+    private static String normalize(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && out.length() > 0) out.append(' ');
+                out.append(Character.toUpperCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return out.toString();
+    }
+
+    private interface KeyVisitor {
+        void visit(int id, byte kind, boolean exact);
+    }
+
+    /**
+     * Immutable search index
+     */
+    private static final class Index {
+        static final Index EMPTY = new Index(Collections.emptyList());
+
+        final Entry[] entries;
+        final Map<String, Entry> byTicker = new HashMap<>();
+        final String[] keys;
+        final int[] ids;
+        final byte[] kinds;
+
+        /** Keys of each entry, the compact symbol first */
+        final String[][] entryKeys;
+        final byte[][] entryKinds;
+
+        Index(List<Entry> list) {
+            entries = list.toArray(new Entry[0]);
+            entryKeys = new String[entries.length][];
+            entryKinds = new byte[entries.length][];
+            List<Object[]> pairs = new ArrayList<>();
+            for (int id = 0; id < entries.length; id++) {
+                Entry e = entries[id];
+                byTicker.put(e.ticker, e);
+                byTicker.putIfAbsent(e.symbol, e);
+
+                List<Object[]> own = new ArrayList<>();
+                Set<String> seen = new HashSet<>();
+                add(own, seen, normalize(e.symbol).replace(" ", ""), id, KIND_SYMBOL);
+                // Parts of a separated symbol ("BTC/USDT") also match as symbols
+                for (String part : normalize(e.symbol).split(" ")) add(own, seen, part, id, KIND_SYMBOL);
+                if (e.exchange != null) add(own, seen, normalize(e.exchange).replace(" ", ""), id, KIND_EXCHANGE);
+                if (e.name != null) {
+                    for (String word : normalize(e.name).split(" ")) add(own, seen, word, id, KIND_NAME);
+                }
+
+                entryKeys[id] = new String[own.size()];
+                entryKinds[id] = new byte[own.size()];
+                for (int k = 0; k < own.size(); k++) {
+                    entryKeys[id][k] = (String) own.get(k)[0];
+                    entryKinds[id][k] = (Byte) own.get(k)[2];
+                }
+                pairs.addAll(own);
+            }
+            pairs.sort((a, b) -> ((String) a[0]).compareTo((String) b[0]));
+
+            keys = new String[pairs.size()];
+            ids = new int[pairs.size()];
+            kinds = new byte[pairs.size()];
+            for (int i = 0; i < keys.length; i++) {
+                Object[] p = pairs.get(i);
+                keys[i] = (String) p[0];
+                ids[i] = (Integer) p[1];
+                kinds[i] = (Byte) p[2];
+            }
+        }
+
+        private static void add(List<Object[]> pairs, Set<String> seen, String key, int id, byte kind) {
+            if (!key.isEmpty() && seen.add(key)) pairs.add(new Object[] { key, id, kind });
+        }
+
+        /** Visit every key starting with prefix */
+        void scan(String prefix, KeyVisitor visitor) {
+            if (prefix.isEmpty()) return;
+            for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                visitor.visit(ids[i], kinds[i], keys[i].length() == prefix.length());
+            }
+        }
+
+        /**
+         * Score of an entry for a query, -1 if some word does not match
+         * Words joined into a symbol rank like that symbol.
+         */
+        int rank(int id, String[] words, String compact) {
+            String symbol = entryKeys[id].length > 0 ? entryKeys[id][0] : "";
+            if (words.length > 1 && symbol.startsWith(compact)) return score(KIND_SYMBOL, symbol.length() == compact.length());
+            int score = match(id, words[0]);
+            for (int w = 1; w < words.length && score >= 0; w++) {
+                if (match(id, words[w]) < 0) score = -1;
+            }
+            return score;
+        }
+
+        /**
+         * Best score of a word against one entry, -1 if no key matches
+         * A word inside the symbol also matches ("USD" in "BTCUSD").
+         */
+        int match(int id, String word) {
+            String[] own = entryKeys[id];
+            int best = -1;
+            for (int k = 0; k < own.length; k++) {
+                if (own[k].startsWith(word)) {
+                    int score = score(entryKinds[id][k], own[k].length() == word.length());
+                    if (best < 0 || score < best) best = score;
+                }
+            }
+            if (best < 0 && own.length > 0 && own[0].contains(word)) best = score(KIND_NAME, false);
+            return best;
+        }
+
+        private int lowerBound(String key) {
+            int lo = 0, hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * FCS API - Transport
+ *
+ * Pluggable HTTP layer used by FcsApi. Supply your own implementation
+ * through FcsConfig.setTransport() (e.g. a stub for tests or another HTTP client).
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * HTTP transport SPI
+ * Implementations must be safe to call from multiple threads.
+ */
+public interface FcsTransport extends Closeable {
+
+    /**
+     * Send a form-encoded POST request
+     * @param url Absolute request URL
+     * @param formBody URL-encoded form body
+     * @param config Client configuration (timeouts)
+     * @return Open response, caller must close it
+     * @throws IOException on connection or protocol failure
+     */
+    Response post(String url, byte[] formBody, FcsConfig config) throws IOException;
+
+    /**
+     * Release pooled resources. Default does nothing.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Open HTTP response
+     * Closing the response returns its connection to the pool.
+     */
+    interface Response extends Closeable {
+
+        /** HTTP status code */
+        int getStatusCode();
+
+        /** Response body stream (error body for non-2xx statuses) */
+        InputStream getBody() throws IOException;
+
+        /** Time spent opening the connection in nanoseconds, -1 if not measured. Default -1. */
+        default long getConnectNanos() {
+            return -1;
+        }
+    }
+}
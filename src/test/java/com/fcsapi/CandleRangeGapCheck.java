@@ -0,0 +1,125 @@
+/**
+ * FCS API - Candle Range Gap Check
+ *
+ * Runs getHistoryRange() against a candle store with a transport that fails
+ * on the second page, then checks that the failed part of the range is not
+ * recorded as downloaded and is fetched again by the next call.
+ *
+ * Run with: java -cp target/classes:target/test-classes:<gson jar> com.fcsapi.CandleRangeGapCheck
+ *
+ * @package FcsApi
+ * @author FCS API <support@fcsapi.com>
+ */
+
+package com.fcsapi;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CandleRangeGapCheck {
+
+    private static final String ENDPOINT = "forex/history";
+    private static final String SYMBOL = "EURUSD";
+    private static final long HOUR = 3600;
+
+    private static volatile int failPage;
+
+    public static void main(String[] args) throws Exception {
+        File dir = Files.createTempDirectory("fcs-gap-check").toFile();
+        try {
+            run(dir);
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) for (File f : files) f.delete();
+            dir.delete();
+        }
+        System.out.println("CandleRangeGapCheck passed");
+    }
+
+    private static void run(File dir) throws IOException {
+        FcsConfig config = FcsConfig.withAccessKey("check");
+        config.setTransport(CandleRangeGapCheck::serve);
+        FcsCandleStore store = new FcsCandleStore(dir);
+        config.setCandleStore(store);
+        FcsApi api = new FcsApi(config);
+
+        long from = FcsCandleSeries.parseTime("2020-01-01");
+        long to = FcsCandleSeries.parseTime("2020-03-31") + 86399;
+
+        // Page 1 arrives, page 2 fails: the call fails and only page 1 is covered
+        failPage = 2;
+        FcsCandleSeries series = api.getForex().getHistoryRange(SYMBOL, "1h", "2020-01-01", "2020-03-31");
+        check(series == null, "range with a failed page returned " + series);
+        check(!api.isSuccess(), "failed page not reported: " + api.getLastResponse());
+
+        List<long[]> missing = store.missing(ENDPOINT, SYMBOL, "1h", from, to);
+        long page1End = from + 1000 * HOUR;
+        check(missing.size() == 1 && missing.get(0)[0] == page1End && missing.get(0)[1] == to,
+                "expected [" + page1End + ", " + to + "] missing, got " + describe(missing));
+        check(store.size(ENDPOINT, SYMBOL, "1h") == 1000, "stored " + store.size(ENDPOINT, SYMBOL, "1h") + " candles");
+
+        // Transport works again: the hole is fetched and the whole range is returned
+        failPage = 0;
+        series = api.getForex().getHistoryRange(SYMBOL, "1h", "2020-01-01", "2020-03-31");
+        long expected = (to - from + 1) / HOUR;
+        check(series != null && series.size() == expected, "expected " + expected + " candles, got " + series);
+        check(store.missing(ENDPOINT, SYMBOL, "1h", from, to).isEmpty(), "range still has gaps");
+    }
+
+    /** Hourly candles for the requested range, 503 on the failing page */
+    private static FcsTransport.Response serve(String url, byte[] body, FcsConfig config) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : new String(body, StandardCharsets.UTF_8).split("&")) {
+            String[] kv = pair.split("=", 2);
+            form.put(kv[0], kv.length > 1 ? URLDecoder.decode(kv[1], "UTF-8") : "");
+        }
+        int page = Integer.parseInt(form.get("page"));
+        int length = Integer.parseInt(form.get("length"));
+        long from = FcsCandleSeries.parseTime(form.get("from"));
+        long to = FcsCandleSeries.parseTime(form.get("to"));
+
+        if (page == failPage) return response(503, "Service Unavailable");
+
+        StringBuilder json = new StringBuilder("{\"status\":true,\"code\":200,\"msg\":\"ok\",\"response\":[");
+        long start = (from + HOUR - 1) / HOUR * HOUR + (long) (page - 1) * length * HOUR;
+        for (int i = 0; i < length && start + i * HOUR <= to; i++) {
+            long t = start + i * HOUR;
+            if (i > 0) json.append(',');
+            json.append('[').append(t).append(",1.1,1.2,1.0,1.15,100]");
+        }
+        json.append("]}");
+        return response(200, json.toString());
+    }
+
+    private static FcsTransport.Response response(int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return new FcsTransport.Response() {
+            @Override
+            public int getStatusCode() { return status; }
+
+            @Override
+            public InputStream getBody() { return new ByteArrayInputStream(bytes); }
+
+            @Override
+            public void close() {}
+        };
+    }
+
+    private static String describe(List<long[]> ranges) {
+        StringBuilder sb = new StringBuilder();
+        for (long[] r : ranges) sb.append('[').append(r[0]).append(", ").append(r[1]).append(']');
+        return sb.toString();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}